@@ -4,12 +4,15 @@ import java.util.*;
  * Represents an AI player in the game. The logic for making a move will be based
  * on AI algorithms such as minimax or heuristic-based decision-making.
  */
-public abstract class AIPlayer extends Player {
+public abstract class AIPlayer extends Player implements AutoCloseable {
     public static void registerAllAIPlayers() {
 
         registerAIPlayerType("RandomAI",RandomAI.class);
         registerAIPlayerType("GreedyAI",GreedyAI.class);
         registerAIPlayerType("SmartAI", SmartAI.class);
+        registerAIPlayerType("AlphaBetaAI", AlphaBetaAI.class);
+        registerAIPlayerType("ParallelAlphaBetaAI", ParallelAlphaBetaAI.class);
+        registerAIPlayerType("MctsAI", MctsAI.class);
 
 
 
@@ -19,6 +22,9 @@ public abstract class AIPlayer extends Player {
         return false;
     }
 
+    // Latency and search metrics shared by every player of the same type, published through JMX
+    protected final AIPlayerMetrics metrics = AIPlayerMetrics.of(getClass().getName());
+
     // Map of AI player types and their corresponding classes
     private static final Map<String, Class<? extends AIPlayer>> aiPlayerRegistry = new HashMap<>();
 
@@ -49,4 +55,14 @@ public abstract class AIPlayer extends Player {
         return new ArrayList<>(aiPlayerRegistry.keySet());
     }
     public abstract Move makeMove(PlayableLogic gameStatus);
+
+    /**
+     * Stops the threads the player searches with, if any. Players that are dropped, such as the players of a finished
+     * tournament game, must be closed, or their threads stay alive. The player can still make moves afterwards: it
+     * starts its threads again when it needs them.
+     * Does nothing by default, for players that search on the thread calling makeMove.
+     */
+    @Override
+    public void close() {
+    }
 }
\ No newline at end of file
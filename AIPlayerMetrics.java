@@ -0,0 +1,208 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the moves of every AI player of one type: how long makeMove took, as a {@link Histogram} of latencies,
+ * how many positions were searched, and how often the transposition table and the opening book were hit.
+ * All players of the same type share one instance, updated with {@link LongAdder}s, so players on many threads
+ * record without contending, and recording stays on all the time.
+ *
+ * Each instance is published through JMX as "reversi:type=AIPlayer,name=(the AI type)" (see {@link Metrics}).
+ */
+public final class AIPlayerMetrics implements AIPlayerMetricsMBean {
+
+    private static final ConcurrentMap<String, AIPlayerMetrics> byType = new ConcurrentHashMap<>();
+
+    private final LongAdder bookMoves = new LongAdder();
+    private final Histogram latencies = new Histogram(); // Nanoseconds
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+
+    /**
+     * Constructs the metrics of a type, all at 0.
+     */
+    private AIPlayerMetrics() {
+    }
+
+    /**
+     * Returns the metrics of an AI type, creating them and registering them with JMX on first use.
+     *
+     * @param type The AI type, as registered in {@link AIPlayer}.
+     * @return The metrics shared by every player of the type.
+     */
+    public static AIPlayerMetrics of(String type) {
+        return byType.computeIfAbsent(type, name -> {
+            AIPlayerMetrics metrics = new AIPlayerMetrics();
+            Metrics.register(metrics, "type=AIPlayer,name=" + name);
+            return metrics;
+        });
+    }
+
+    /**
+     * Records a move.
+     *
+     * @param nanos The time makeMove took, in nanoseconds.
+     * @param nodes The number of positions searched, or playouts run, for the move.
+     */
+    public void moveMade(long nanos, long nodes) {
+        latencies.record(nanos);
+        this.nodes.add(nodes);
+    }
+
+    /**
+     * Records a move taken from the opening book, see {@link #moveMade(long, long)}.
+     *
+     * @param nanos The time makeMove took, in nanoseconds.
+     */
+    public void bookMoveMade(long nanos) {
+        bookMoves.increment();
+        moveMade(nanos, 0);
+    }
+
+    /**
+     * Records the transposition table lookups of a move.
+     *
+     * @param probes The number of lookups.
+     * @param hits   The number of lookups that found a result.
+     */
+    public void tableLookups(long probes, long hits) {
+        tableProbes.add(probes);
+        tableHits.add(hits);
+    }
+
+    /**
+     * Returns the number of moves made.
+     *
+     * @return The number of moves.
+     */
+    @Override
+    public long getMoves() {
+        return latencies.count();
+    }
+
+    /**
+     * Returns the number of moves taken from the opening book.
+     *
+     * @return The number of book moves.
+     */
+    @Override
+    public long getBookMoves() {
+        return bookMoves.sum();
+    }
+
+    /**
+     * Returns the average time makeMove took.
+     *
+     * @return The mean latency, in milliseconds.
+     */
+    @Override
+    public double getMeanLatencyMillis() {
+        return latencies.mean() / 1e6;
+    }
+
+    /**
+     * Returns the median time makeMove took.
+     *
+     * @return The median latency, in milliseconds.
+     */
+    @Override
+    public double getLatencyP50Millis() {
+        return latencies.percentile(50) / 1e6;
+    }
+
+    /**
+     * Returns the 90th percentile of the time makeMove took.
+     *
+     * @return The latency at the 90th percentile, in milliseconds.
+     */
+    @Override
+    public double getLatencyP90Millis() {
+        return latencies.percentile(90) / 1e6;
+    }
+
+    /**
+     * Returns the 99th percentile of the time makeMove took.
+     *
+     * @return The latency at the 99th percentile, in milliseconds.
+     */
+    @Override
+    public double getLatencyP99Millis() {
+        return latencies.percentile(99) / 1e6;
+    }
+
+    /**
+     * Returns the longest time makeMove took.
+     *
+     * @return The largest latency, in milliseconds.
+     */
+    @Override
+    public double getMaxLatencyMillis() {
+        return latencies.max() / 1e6;
+    }
+
+    /**
+     * Returns the number of positions searched, or of playouts run.
+     *
+     * @return The number of nodes.
+     */
+    @Override
+    public long getNodesSearched() {
+        return nodes.sum();
+    }
+
+    /**
+     * Returns the number of positions searched per second of makeMove.
+     *
+     * @return The search speed.
+     */
+    @Override
+    public double getNodesPerSecond() {
+        long nanos = latencies.sum();
+        return nanos == 0 ? 0 : getNodesSearched() * 1e9 / nanos;
+    }
+
+    /**
+     * Returns the number of transposition table lookups.
+     *
+     * @return The number of lookups.
+     */
+    @Override
+    public long getTableProbes() {
+        return tableProbes.sum();
+    }
+
+    /**
+     * Returns the number of transposition table lookups that found a result.
+     *
+     * @return The number of hits.
+     */
+    @Override
+    public long getTableHits() {
+        return tableHits.sum();
+    }
+
+    /**
+     * Returns the share of transposition table lookups that found a result.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    @Override
+    public double getTableHitRate() {
+        long probes = getTableProbes();
+        return probes == 0 ? 0 : (double) getTableHits() / probes;
+    }
+
+    /**
+     * Sets every metric back to 0.
+     */
+    @Override
+    public void reset() {
+        bookMoves.reset();
+        latencies.reset();
+        nodes.reset();
+        tableProbes.reset();
+        tableHits.reset();
+    }
+}
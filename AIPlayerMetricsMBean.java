@@ -0,0 +1,94 @@
+/**
+ * The JMX view of {@link AIPlayerMetrics}: the moves of every AI player of one type in the running program.
+ */
+public interface AIPlayerMetricsMBean {
+
+    /**
+     * Returns the number of moves made.
+     *
+     * @return The number of moves.
+     */
+    long getMoves();
+
+    /**
+     * Returns the number of moves taken from the opening book without searching.
+     *
+     * @return The number of book moves.
+     */
+    long getBookMoves();
+
+    /**
+     * Returns the average time makeMove took.
+     *
+     * @return The mean latency, in milliseconds.
+     */
+    double getMeanLatencyMillis();
+
+    /**
+     * Returns the median time makeMove took.
+     *
+     * @return The median latency, in milliseconds.
+     */
+    double getLatencyP50Millis();
+
+    /**
+     * Returns the 90th percentile of the time makeMove took.
+     *
+     * @return The latency at the 90th percentile, in milliseconds.
+     */
+    double getLatencyP90Millis();
+
+    /**
+     * Returns the 99th percentile of the time makeMove took.
+     *
+     * @return The latency at the 99th percentile, in milliseconds.
+     */
+    double getLatencyP99Millis();
+
+    /**
+     * Returns the longest time makeMove took.
+     *
+     * @return The largest latency, in milliseconds.
+     */
+    double getMaxLatencyMillis();
+
+    /**
+     * Returns the number of positions searched, or of playouts run for MctsAI.
+     *
+     * @return The number of nodes.
+     */
+    long getNodesSearched();
+
+    /**
+     * Returns the number of positions searched per second of makeMove.
+     *
+     * @return The search speed.
+     */
+    double getNodesPerSecond();
+
+    /**
+     * Returns the number of transposition table lookups.
+     *
+     * @return The number of lookups.
+     */
+    long getTableProbes();
+
+    /**
+     * Returns the number of transposition table lookups that found a result.
+     *
+     * @return The number of hits.
+     */
+    long getTableHits();
+
+    /**
+     * Returns the share of transposition table lookups that found a result.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    double getTableHitRate();
+
+    /**
+     * Sets every metric back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,260 @@
+/**
+ * An AI player that looks ahead with an alpha-beta search (see {@link AlphaBetaSearch}).
+ * It searches deeper and deeper until its time budget for the move runs out, and plays the best move of the last
+ * depth it finished. Bombs and unflippable discs are searched like any other move, so the AI decides by itself
+ * when a special disc is worth spending.
+ *
+ * In the opening, the AI plays the move of its {@link OpeningBook} without searching, as long as the position is in
+ * the book.
+ *
+ * When few empty squares are left, the AI first tries to solve the rest of the game exactly with an
+ * {@link EndgameSolver}, using up to half of its time budget, and only searches if the solver could not finish.
+ *
+ * The search keeps its results in a {@link PackedTranspositionTable} of fixed size, so each position reached
+ * through different move orders is only searched once per depth.
+ *
+ * With more than one thread, the search runs on a private thread pool (see {@link ParallelSearch}), so the thread
+ * calling makeMove only waits for the result. The threads then share a {@link LocklessTranspositionTable}.
+ */
+public class AlphaBetaAI extends AIPlayer {
+
+    private static final long defaultTimeBudget = 500; // Milliseconds per move
+    private static final int defaultMaxDepth = 60; // Deep enough to never stop the search before the time budget
+    private static final int defaultTableSize = 16; // Megabytes
+
+    private final AlphaBetaSearch search = new AlphaBetaSearch();
+    private int tableSize = defaultTableSize;
+    private TranspositionTable table = new PackedTranspositionTable(defaultTableSize);
+    private final EndgameSolver solver = new EndgameSolver();
+    private OpeningBook book = OpeningBook.getDefault();
+    private ParallelSearch parallelSearch; // Created on the first move searched with more than one thread
+    private long timeBudget = defaultTimeBudget;
+    private int maxDepth = defaultMaxDepth;
+    private int threads = 1;
+    private int endgameEmpties = EndgameSolver.defaultEmpties;
+    private long lastNodes;
+    private int lastDepth;
+
+    /**
+     * Constructs a new AlphaBetaAI player with the default time budget.
+     *
+     * @param isPlayerOne true if this is the first player, false for second player.
+     */
+    public AlphaBetaAI(boolean isPlayerOne) {
+        super(isPlayerOne);
+        search.setTable(table);
+    }
+
+    /**
+     * Constructs a new AlphaBetaAI player with a given time budget.
+     *
+     * @param isPlayerOne true if this is the first player, false for second player.
+     * @param timeBudget  The time the AI may think about each move, in milliseconds.
+     */
+    public AlphaBetaAI(boolean isPlayerOne, long timeBudget) {
+        this(isPlayerOne);
+        setTimeBudget(timeBudget);
+    }
+
+    /**
+     * Sets the time the AI may think about each move.
+     *
+     * @param timeBudget The time budget in milliseconds.
+     * @throws IllegalArgumentException if the budget is negative.
+     */
+    public void setTimeBudget(long timeBudget) {
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudget);
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Returns the time the AI may think about each move.
+     *
+     * @return The time budget in milliseconds.
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Sets the deepest depth the AI searches to. The search stops at this depth even if time is left, so that a move
+     * always costs the same work, for example in benchmarks.
+     *
+     * @param maxDepth The depth, in moves.
+     * @throws IllegalArgumentException if the depth is not between 1 and 60.
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth > defaultMaxDepth) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + defaultMaxDepth + ": " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets the memory ceiling of the table the search keeps its results in.
+     * The table is replaced by an empty one of the new size.
+     *
+     * @param megabytes The memory ceiling, in megabytes.
+     * @throws IllegalArgumentException if the ceiling is not positive.
+     */
+    public void setTableSize(int megabytes) {
+        table = new PackedTranspositionTable(megabytes);
+        search.setTable(table);
+        tableSize = megabytes;
+        if (parallelSearch != null) {
+            parallelSearch.close();
+            parallelSearch = null;
+        }
+    }
+
+    /**
+     * Returns the table of the last search, which reports its hit rate.
+     *
+     * @return The table of the single-threaded search, or the table shared by the threads of the parallel search.
+     */
+    public TranspositionTable getTable() {
+        return threads > 1 && parallelSearch != null ? parallelSearch.table() : table;
+    }
+
+    /**
+     * Shuts down the thread pool of the parallel search, if it was started. Its table is dropped with it.
+     */
+    @Override
+    public void close() {
+        if (parallelSearch != null) {
+            parallelSearch.close();
+            parallelSearch = null;
+        }
+    }
+
+    /**
+     * Sets the number of threads the AI searches with.
+     *
+     * @param threads The number of threads, 1 to search on the thread calling makeMove.
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        if (parallelSearch != null && parallelSearch.threads() != threads) {
+            parallelSearch.close();
+            parallelSearch = null;
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the number of threads the AI searches with.
+     *
+     * @return The number of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of empty squares at or below which the AI tries to solve the game exactly.
+     *
+     * @param endgameEmpties The number of empty squares, 0 to never use the solver.
+     */
+    public void setEndgameEmpties(int endgameEmpties) {
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    /**
+     * Sets the opening book the AI plays from before searching.
+     *
+     * @param book The opening book, or {@link OpeningBook#EMPTY} to always search.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Returns the number of positions searched for the last move, over all threads.
+     *
+     * @return The node count of the last move.
+     */
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+    /**
+     * Returns the depth the last move was searched to. A move found by the endgame solver was searched to the end of
+     * the game, so its depth is the number of empty squares, and a move taken from the opening book has depth 0.
+     *
+     * @return The completed depth of the last move.
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Makes a move by searching the game tree until the time budget runs out.
+     *
+     * @param gameStatus The current game state.
+     * @return The best move found, with a disc of the chosen kind.
+     * @throws IllegalStateException if no valid moves are available.
+     */
+    @Override
+    public Move makeMove(PlayableLogic gameStatus) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget * 1_000_000;
+        SearchBoard board = search.board();
+        board.load(gameStatus);
+
+        // In the opening, play the book move. The legality check guards against hash collisions
+        int bookMove = book.bestMove(board.hash());
+        if (bookMove >= 0 && board.isLegal(bookMove)) {
+            lastNodes = 0;
+            lastDepth = 0;
+            metrics.bookMoveMade(System.nanoTime() - start);
+            return SearchBoard.toMove(bookMove, isPlayerOne ? gameStatus.getFirstPlayer() : gameStatus.getSecondPlayer());
+        }
+
+        // Near the end of the game, play a proven move if the solver finds one in time
+        if (Long.bitCount(board.empty()) <= endgameEmpties) {
+            int move = solver.provenMove(board, start + timeBudget * 500_000);
+            lastNodes = solver.nodes();
+            lastDepth = Long.bitCount(board.empty());
+            if (move >= 0) {
+                metrics.moveMade(System.nanoTime() - start, lastNodes);
+                return SearchBoard.toMove(move, isPlayerOne ? gameStatus.getFirstPlayer() : gameStatus.getSecondPlayer());
+            }
+        }
+
+        int move;
+        TranspositionTable searchTable;
+        long probes;
+        long hits;
+        if (threads == 1) {
+            searchTable = table;
+            probes = searchTable.probes();
+            hits = searchTable.hits();
+            table.newSearch();
+            move = search.search(deadline, maxDepth);
+            lastNodes = search.nodes();
+            lastDepth = search.completedDepth();
+        } else {
+            if (parallelSearch == null) {
+                parallelSearch = new ParallelSearch(threads, new LocklessTranspositionTable(tableSize));
+            }
+            searchTable = parallelSearch.table();
+            probes = searchTable.probes();
+            hits = searchTable.hits();
+            searchTable.newSearch();
+            move = parallelSearch.search(gameStatus, deadline, maxDepth);
+            lastNodes = parallelSearch.nodes();
+            lastDepth = parallelSearch.completedDepth();
+        }
+        if (move < 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
+        metrics.tableLookups(searchTable.probes() - probes, searchTable.hits() - hits);
+        metrics.moveMade(System.nanoTime() - start, lastNodes);
+        return SearchBoard.toMove(move, isPlayerOne ? gameStatus.getFirstPlayer() : gameStatus.getSecondPlayer());
+    }
+}
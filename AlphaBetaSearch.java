@@ -0,0 +1,324 @@
+/**
+ * A negamax search with alpha-beta pruning and iterative deepening, working on a {@link SearchBoard}.
+ * The search goes one ply deeper at a time until its deadline passes, and answers with the best move of the last
+ * depth it finished. Leaves are scored with a {@link PatternEvaluation}, and finished games with their exact disc
+ * difference.
+ * Moves are searched in the order given by a {@link MoveOrdering}, so that most cutoffs happen on the first move.
+ *
+ * Moves include the special discs: a bomb or an unflippable disc can be placed on any legal square while the player
+ * to move has some left. One instance searches one position at a time and is not thread-safe, but several instances
+ * may share one {@link TranspositionTable} and search in parallel (see {@link ParallelSearch}).
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * The score of a won game, before adding the disc difference. Any score beyond it is a proven result.
+     */
+    public static final int WIN = 100_000;
+
+    private static final int infinity = 1_000_000;
+    private static final int maxPly = 64;
+    private static final int timeCheckInterval = 1024; // Nodes searched between two looks at the clock
+
+    private final SearchBoard board = new SearchBoard();
+    private final int[][] moveStack = new int[maxPly + 1][SearchBoard.maxMoves]; // One move buffer per ply
+    private final int[] rootMoves = new int[SearchBoard.maxMoves];
+    private final long[] rootFlips = new long[SearchBoard.maxMoves];
+    private final long[][] flipStack = new long[maxPly + 1][64]; // The flips of every square computed at each ply
+
+    private TranspositionTable table; // Results shared between iterations and threads, or null
+    private PatternEvaluation evaluation = PatternEvaluation.getDefault();
+    private MoveOrdering ordering = new MoveOrdering(); // null to only search the hash move first
+    private long deadline;     // System.nanoTime() after which the search stops
+    private volatile boolean stopRequested;
+    private boolean aborted;
+    private long nodes;
+    private int completedDepth;
+    private int bestMove;
+    private int bestScore;
+
+    /**
+     * Searches a game position and returns the best move found before the deadline.
+     * The first depth is always finished, so a move is returned even when the deadline has already passed.
+     *
+     * @param game     The position to search. It is only read.
+     * @param deadline The System.nanoTime() value at which the search must stop.
+     * @param maxDepth The deepest depth to search.
+     * @return The best move, encoded as in {@link SearchBoard}, or -1 if the player to move has no moves.
+     */
+    public int search(PlayableLogic game, long deadline, int maxDepth) {
+        board.load(game);
+        return search(deadline, maxDepth);
+    }
+
+    /**
+     * Searches the position already loaded in {@link #board()}.
+     *
+     * @param deadline The System.nanoTime() value at which the search must stop.
+     * @param maxDepth The deepest depth to search.
+     * @return The best move, encoded as in {@link SearchBoard}, or -1 if the player to move has no moves.
+     */
+    public int search(long deadline, int maxDepth) {
+        return search(deadline, 1, maxDepth);
+    }
+
+    /**
+     * Searches the position already loaded in {@link #board()}, starting from a given depth.
+     * Starting deeper is how helper threads of a parallel search spread out over different depths.
+     *
+     * @param deadline   The System.nanoTime() value at which the search must stop.
+     * @param firstDepth The first depth to search.
+     * @param maxDepth   The deepest depth to search.
+     * @return The best move, encoded as in {@link SearchBoard}, or -1 if the player to move has no moves.
+     */
+    public int search(long deadline, int firstDepth, int maxDepth) {
+        this.deadline = deadline;
+        nodes = 0;
+        completedDepth = 0;
+        bestMove = -1;
+        bestScore = 0;
+        aborted = false;
+        if (ordering != null) ordering.newSearch();
+
+        long legal = board.legalMoves();
+        int count = board.generateMoves(legal, rootMoves);
+        if (count == 0) return -1;
+        for (int i = 0; i < count; i++) {
+            rootFlips[i] = board.flips(SearchBoard.squareOf(rootMoves[i]));
+        }
+        bestMove = rootMoves[0];
+
+        // Searching deeper than the number of empty squares cannot change the result
+        int empties = Long.bitCount(board.empty());
+        for (int depth = Math.min(firstDepth, empties); depth <= Math.min(maxDepth, empties); depth++) {
+            int score = searchRoot(depth, count);
+            if (aborted) break;
+            bestScore = score;
+            completedDepth = depth;
+        }
+        return bestMove;
+    }
+
+    /**
+     * Searches every root move to the given depth. The best move is moved to the front of the root moves,
+     * so that the next iteration searches it first.
+     *
+     * @param depth The depth to search.
+     * @param count The number of root moves.
+     * @return The score of the best move, or an unusable value if the search was aborted.
+     */
+    private int searchRoot(int depth, int count) {
+        int alpha = -infinity;
+        int best = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(rootMoves[i], rootFlips[i]);
+            int score = -negamax(depth - 1, -infinity, -alpha, 1);
+            board.unmakeMove();
+            if (aborted) return alpha;
+            if (score > alpha) {
+                alpha = score;
+                best = i;
+            }
+        }
+
+        // Keep the best move first, and the other moves in their order
+        int move = rootMoves[best];
+        long flips = rootFlips[best];
+        System.arraycopy(rootMoves, 0, rootMoves, 1, best);
+        System.arraycopy(rootFlips, 0, rootFlips, 1, best);
+        rootMoves[0] = move;
+        rootFlips[0] = flips;
+        bestMove = move;
+        return alpha;
+    }
+
+    /**
+     * Searches a position with alpha-beta pruning.
+     *
+     * @param depth The remaining depth.
+     * @param alpha The score the player to move is already sure to get.
+     * @param beta  The score above which the opponent will avoid this position.
+     * @param ply   The distance from the root.
+     * @return The score of the position for the player to move.
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (++nodes % timeCheckInterval == 0
+                && (stopRequested || completedDepth > 0 && System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) return 0;
+
+        long legal = board.legalMoves();
+        if (legal == 0) return finalScore(board);
+        if (depth == 0) return evaluation.evaluate(board, legal);
+
+        // Use what is already known about this position
+        long hash = board.hash();
+        int hashMove = -1;
+        if (table != null) {
+            long entry = table.probe(hash);
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int score = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || bound == TranspositionTable.LOWER && score >= beta
+                            || bound == TranspositionTable.UPPER && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int[] moves = moveStack[ply];
+        int count = board.generateMoves(legal, moves);
+        if (ordering != null) ordering.order(moves, count, hashMove, ply);
+        else if (hashMove >= 0) moveToFront(moves, count, hashMove);
+        int originalAlpha = alpha;
+        int best = -infinity;
+        int bestMove = -1;
+        long[] flips = flipStack[ply];
+        long computed = 0; // Moves on the same square flip the same discs, so each square is only computed once
+        for (int i = 0; i < count; i++) {
+            int square = SearchBoard.squareOf(moves[i]);
+            if ((computed & 1L << square) == 0) {
+                flips[square] = board.flips(square);
+                computed |= 1L << square;
+            }
+            board.makeMove(moves[i], flips[square]);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (aborted) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = moves[i];
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (ordering != null) ordering.cutoff(moves[i], depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (table != null) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(hash, depth, bound, best, bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * Moves a move to the front of a move list, if it is in the list.
+     * A move from the table is only trusted once it is found among the legal moves.
+     *
+     * @param moves The move list.
+     * @param count The number of moves in the list.
+     * @param move  The move to search first.
+     */
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Scores a finished game from the point of view of the player to move.
+     *
+     * @param board A position where the player to move has no moves.
+     * @return WIN plus the disc difference for a win, minus WIN plus the disc difference for a loss, 0 for a draw.
+     */
+    public static int finalScore(SearchBoard board) {
+        int difference = board.discDifference();
+        if (difference > 0) return WIN + difference;
+        if (difference < 0) return -WIN + difference;
+        return 0;
+    }
+
+    /**
+     * Sets the table this search reads and stores its results in.
+     *
+     * @param table The table, or null to search without one.
+     */
+    public void setTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Sets the evaluation this search scores its leaves with.
+     *
+     * @param evaluation The evaluation.
+     */
+    public void setEvaluation(PatternEvaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Sets the move ordering of this search.
+     *
+     * @param ordering The move ordering, or null to only search the hash move first and the other moves in the order
+     *                 they are generated.
+     */
+    public void setMoveOrdering(MoveOrdering ordering) {
+        this.ordering = ordering;
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible, even before it has finished its first depth.
+     * The request stays in effect until the next call to {@link #resume()}.
+     * This method may be called from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Cancels a stop request, so that the next search runs until its deadline.
+     */
+    public void resume() {
+        stopRequested = false;
+    }
+
+    /**
+     * Returns the board this search works on.
+     *
+     * @return The search board.
+     */
+    public SearchBoard board() {
+        return board;
+    }
+
+    /**
+     * Returns the number of positions visited by the last search.
+     *
+     * @return The node count.
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the deepest depth the last search finished.
+     *
+     * @return The completed depth.
+     */
+    public int completedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Returns the score of the best move of the last search, for the player who was to move.
+     *
+     * @return The score of the last completed depth.
+     */
+    public int bestScore() {
+        return bestScore;
+    }
+}
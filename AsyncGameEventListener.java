@@ -0,0 +1,191 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * A game event listener that passes the events on to another listener from a background thread.
+ * The game thread only queues the events; the background thread takes them in batches, hands them to the
+ * wrapped listener and flushes the output once per batch, so slow I/O never blocks the game (or the Swing thread).
+ * The queue is bounded: if the output falls that far behind, the game waits for it rather than filling the memory.
+ * An exception thrown by the wrapped listener is reported once to System.err, and the following events are still
+ * handled. Call {@link #close()} to write the remaining events and stop the background thread.
+ */
+public class AsyncGameEventListener implements GameEventListener, AutoCloseable {
+    private static final int batchSize = 256;
+    private static final int queueCapacity = 1 << 16; // Events, far more than a game publishes
+
+    // Marks the end of the queue
+    private static final Consumer<GameEventListener> stop = listener -> {
+    };
+
+    private final GameEventListener delegate;
+    private final PrintStream output; // Flushed after every batch and closed at the end, may be null
+    private final BlockingQueue<Consumer<GameEventListener>> queue = new LinkedBlockingQueue<>(queueCapacity);
+    private final Thread writer;
+    private volatile boolean closed = false;
+    private boolean failureReported = false; // Only used by the background thread
+
+    /**
+     * Constructs a listener that passes the events on to the given listener from a background thread.
+     *
+     * @param delegate The listener that handles the events.
+     */
+    public AsyncGameEventListener(GameEventListener delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * Constructs a listener that passes the events on to the given listener from a background thread.
+     *
+     * @param delegate The listener that handles the events.
+     * @param output   The stream the delegate writes to, flushed after every batch and closed by close(), or null.
+     */
+    private AsyncGameEventListener(GameEventListener delegate, PrintStream output) {
+        this.delegate = delegate;
+        this.output = output;
+        this.writer = new Thread(this::writeEvents, "game-event-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Creates a listener that appends the events to a text file, in the console format, from a background thread.
+     *
+     * @param file The file to write to. It is created if it doesn't exist.
+     * @return The new listener.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static AsyncGameEventListener toFile(Path file) throws IOException {
+        PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)), false, StandardCharsets.UTF_8);
+        return new AsyncGameEventListener(new ConsoleGameEventListener(out), out);
+    }
+
+    /**
+     * The loop of the background thread: waits for events and handles them in batches until the listener is closed.
+     */
+    private void writeEvents() {
+        List<Consumer<GameEventListener>> batch = new ArrayList<>(batchSize);
+        boolean done = false;
+        try {
+            while (!done) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                for (Consumer<GameEventListener> event : batch) {
+                    if (event == stop) {
+                        done = true;
+                        break;
+                    }
+                    handle(event);
+                }
+                batch.clear();
+                if (output != null) output.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Passes one event on to the wrapped listener. If the listener throws, the first exception is reported and the
+     * background thread goes on with the next event, so one bad event doesn't stop the output for the whole session.
+     *
+     * @param event The call to make on the wrapped listener.
+     */
+    private void handle(Consumer<GameEventListener> event) {
+        try {
+            event.accept(delegate);
+        } catch (RuntimeException e) {
+            if (!failureReported) {
+                failureReported = true;
+                System.err.println("Game event listener failed, later failures are not reported:");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Queues an event for the background thread, waiting for room if the queue is full.
+     * Events published after close(), or while the publishing thread is interrupted, are dropped.
+     *
+     * @param event The call to make on the wrapped listener.
+     */
+    private void publish(Consumer<GameEventListener> event) {
+        if (closed) return;
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Handles the queued events, stops the background thread and closes the output file, if any.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            queue.put(stop);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (output != null) output.close();
+    }
+
+    @Override
+    public void discPlaced(Player player, Disc disc, int row, int col) {
+        publish(listener -> listener.discPlaced(player, disc, row, col));
+    }
+
+    @Override
+    public void discFlipped(Player player, Disc disc, int row, int col) {
+        publish(listener -> listener.discFlipped(player, disc, row, col));
+    }
+
+    @Override
+    public void moveFinished() {
+        publish(GameEventListener::moveFinished);
+    }
+
+    @Override
+    public void gameOver(Player p1, int player1Score, Player p2, int player2Score) {
+        publish(listener -> listener.gameOver(p1, player1Score, p2, player2Score));
+    }
+
+    @Override
+    public void nothingToUndo() {
+        publish(GameEventListener::nothingToUndo);
+    }
+
+    @Override
+    public void undoStarted() {
+        publish(GameEventListener::undoStarted);
+    }
+
+    @Override
+    public void discRemoved(Disc disc, int row, int col) {
+        publish(listener -> listener.discRemoved(disc, row, col));
+    }
+
+    @Override
+    public void discFlippedBack(Disc disc, int row, int col) {
+        publish(listener -> listener.discFlippedBack(disc, row, col));
+    }
+
+    @Override
+    public void undoFinished() {
+        publish(GameEventListener::undoFinished);
+    }
+}
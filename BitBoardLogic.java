@@ -0,0 +1,333 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is a second implementation of the PlayableLogic interface, which stores the board as 64-bit masks
+ * instead of a Disc[][] array: one mask per player, plus one mask for the bomb discs and one for the unflippable discs.
+ * Legal moves and flips are computed with shift-and-mask operations (see {@link BitBoards}), following exactly the same
+ * rules as {@link GameLogic}, so a whole position can be copied, searched and undone without allocating objects.
+ *
+ * Unlike GameLogic, this class does not print anything, which makes it suitable for batch self-play.
+ */
+public class BitBoardLogic implements PlayableLogic {
+    private static final int boardSize = 8;
+    private static final int maxMoves = 64;
+
+    private final long[] discs = new long[2]; // discs[0] holds the first player's discs, discs[1] the second player's
+    private long bombs;                       // All bomb discs, regardless of owner
+    private long unflippables;                // All unflippable discs, regardless of owner
+    private Player p1, p2;
+    private int side;                         // 0 when it's the first player's turn, 1 otherwise
+    private boolean gameFinished = false;
+
+    // Undo history: the flipped discs of each move, and the square and kind of the placed disc
+    private final long[] historyFlips = new long[maxMoves];
+    private final int[] historyMoves = new int[maxMoves];
+    private int historySize;
+
+    // One shared disc per owner and kind, returned by getDiscAtPosition
+    private final Disc[][] discViews = new Disc[2][3];
+
+    /**
+     * Constructs a new BitBoardLogic object with two human players and resets the game state.
+     */
+    public BitBoardLogic() {
+        setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        reset();
+    }
+
+    /**
+     * Places a disc on the board and handles flipping discs, updating move history, and switching turns.
+     *
+     * @param a    The position where the disc will be placed.
+     * @param disc The disc to be placed.
+     * @return true if the move is valid and executed, false otherwise.
+     */
+    @Override
+    public boolean locate_disc(Position a, Disc disc) {
+        if (a == null || disc == null || disc.getOwner() == null || !isValidPosition(a.row(), a.col()))
+            return false;
+        int kind = BitBoards.kindOf(disc);
+        Player current = currentPlayer();
+        if (kind == BitBoards.BOMB && current.number_of_bombs == 0
+                || kind == BitBoards.UNFLIPPABLE && current.number_of_unflippedable == 0)
+            return false;
+
+        int square = BitBoards.square(a.row(), a.col());
+        long bit = 1L << square;
+        if (((discs[0] | discs[1]) & bit) != 0) return false;
+        long flips = BitBoards.flips(square, discs[side], discs[side ^ 1], unflippables, bombs);
+        if (flips == 0) return false;
+
+        if (kind == BitBoards.BOMB) current.number_of_bombs--;
+        else if (kind == BitBoards.UNFLIPPABLE) current.number_of_unflippedable--;
+
+        apply(square, kind, flips);
+        historyFlips[historySize] = flips;
+        historyMoves[historySize] = square | kind << 6;
+        historySize++;
+        side ^= 1;
+
+        updateGame();
+        return true;
+    }
+
+    /**
+     * Puts a disc of the player to move on the board and flips the given discs to that player.
+     *
+     * @param square The square of the placed disc.
+     * @param kind   The kind of the placed disc.
+     * @param flips  The discs to flip.
+     */
+    private void apply(int square, int kind, long flips) {
+        long bit = 1L << square;
+        discs[side] |= bit | flips;
+        discs[side ^ 1] &= ~flips;
+        if (kind == BitBoards.BOMB) bombs |= bit;
+        else if (kind == BitBoards.UNFLIPPABLE) unflippables |= bit;
+    }
+
+    /**
+     * Updates the game state, finishing the game when the player to move has no valid moves.
+     */
+    public void updateGame() {
+        if (legalMoves() == 0) {
+            gameFinished = true;
+            int player1Score = Long.bitCount(discs[0]);
+            int player2Score = Long.bitCount(discs[1]);
+            if (player1Score > player2Score) p1.wins++;
+            else if (player2Score > player1Score) p2.wins++;
+        }
+    }
+
+    /**
+     * Returns the legal moves of the player to move.
+     *
+     * @return A mask of the squares where the current player can place a disc.
+     */
+    public long legalMoves() {
+        return BitBoards.legalMoves(discs[side], discs[side ^ 1], unflippables);
+    }
+
+    /**
+     * Returns the discs owned by one of the players.
+     *
+     * @param firstPlayer true for the first player's discs, false for the second player's.
+     * @return A mask of the player's discs.
+     */
+    public long getDiscs(boolean firstPlayer) {
+        return discs[firstPlayer ? 0 : 1];
+    }
+
+    /**
+     * Returns all the bomb discs on the board.
+     *
+     * @return A mask of the bomb discs.
+     */
+    public long getBombs() {
+        return bombs;
+    }
+
+    /**
+     * Returns all the unflippable discs on the board.
+     *
+     * @return A mask of the unflippable discs.
+     */
+    public long getUnflippables() {
+        return unflippables;
+    }
+
+    /**
+     * Returns the disc at a given position.
+     *
+     * @param position The position to check.
+     * @return The disc at the specified position, or null if there is no disc.
+     */
+    @Override
+    public Disc getDiscAtPosition(Position position) {
+        if (!isValidPosition(position.row(), position.col())) return null;
+        long bit = 1L << BitBoards.square(position.row(), position.col());
+        int owner;
+        if ((discs[0] & bit) != 0) owner = 0;
+        else if ((discs[1] & bit) != 0) owner = 1;
+        else return null;
+        int kind = (bombs & bit) != 0 ? BitBoards.BOMB : (unflippables & bit) != 0 ? BitBoards.UNFLIPPABLE : BitBoards.SIMPLE;
+        return discViews[owner][kind];
+    }
+
+    /**
+     * Returns the size of the game board.
+     *
+     * @return The size of the board.
+     */
+    @Override
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Checks if a position is valid on the board.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return true if the position is within bounds, false otherwise.
+     */
+    public boolean isValidPosition(int row, int col) {
+        return row >= 0 && row < boardSize && col >= 0 && col < boardSize;
+    }
+
+    /**
+     * Returns a list of all valid moves for the current player.
+     *
+     * @return A list of valid positions where the current player can place a disc.
+     */
+    @Override
+    public List<Position> ValidMoves() {
+        List<Position> valid = new ArrayList<>();
+        for (long moves = legalMoves(); moves != 0; moves &= moves - 1) {
+            valid.add(PositionSet.positionOf(Long.numberOfTrailingZeros(moves)));
+        }
+        return valid;
+    }
+
+    /**
+     * Fills a buffer with every valid move of the current player and the discs each move flips.
+     *
+     * @param moves The buffer to fill. Its previous content is discarded.
+     * @return The number of valid moves.
+     */
+    @Override
+    public int generateMoves(MoveList moves) {
+        moves.clear();
+        long own = discs[side], opp = discs[side ^ 1];
+        for (long legal = legalMoves(); legal != 0; legal &= legal - 1) {
+            int square = Long.numberOfTrailingZeros(legal);
+            moves.add(square, BitBoards.flips(square, own, opp, unflippables, bombs));
+        }
+        return moves.size();
+    }
+
+    /**
+     * Counts how many discs would be flipped if a disc is placed at the given position.
+     *
+     * @param a The position to check.
+     * @return The number of discs that would be flipped.
+     */
+    @Override
+    public int countFlips(Position a) {
+        if (!isValidPosition(a.row(), a.col())) return 0;
+        int square = BitBoards.square(a.row(), a.col());
+        return Long.bitCount(BitBoards.flips(square, discs[side], discs[side ^ 1], unflippables, bombs));
+    }
+
+    /**
+     * Returns the first player of the game.
+     *
+     * @return The first player.
+     */
+    @Override
+    public Player getFirstPlayer() {
+        return p1;
+    }
+
+    /**
+     * Returns the second player of the game.
+     *
+     * @return The second player.
+     */
+    @Override
+    public Player getSecondPlayer() {
+        return p2;
+    }
+
+    /**
+     * Sets the players for the game.
+     *
+     * @param player1 The first player.
+     * @param player2 The second player.
+     */
+    @Override
+    public void setPlayers(Player player1, Player player2) {
+        this.p1 = player1;
+        this.p2 = player2;
+        this.side = 0;
+        discViews[0][BitBoards.SIMPLE] = new SimpleDisc(player1);
+        discViews[0][BitBoards.BOMB] = new BombDisc(player1);
+        discViews[0][BitBoards.UNFLIPPABLE] = new UnflippableDisc(player1);
+        discViews[1][BitBoards.SIMPLE] = new SimpleDisc(player2);
+        discViews[1][BitBoards.BOMB] = new BombDisc(player2);
+        discViews[1][BitBoards.UNFLIPPABLE] = new UnflippableDisc(player2);
+    }
+
+    /**
+     * Returns the player whose turn it is.
+     *
+     * @return The current player.
+     */
+    private Player currentPlayer() {
+        return side == 0 ? p1 : p2;
+    }
+
+    /**
+     * Checks if it's the first player's turn.
+     *
+     * @return true if it's the first player's turn, false otherwise.
+     */
+    @Override
+    public boolean isFirstPlayerTurn() {
+        return side == 0;
+    }
+
+    /**
+     * Checks if the game is finished.
+     *
+     * @return true if the game is finished, false otherwise.
+     */
+    @Override
+    public boolean isGameFinished() {
+        return gameFinished;
+    }
+
+    /**
+     * Resets the game, clearing the board and resetting the player states.
+     */
+    @Override
+    public void reset() {
+        gameFinished = false;
+        historySize = 0;
+        p1.number_of_unflippedable = 2;
+        p2.number_of_unflippedable = 2;
+        p1.number_of_bombs = 3;
+        p2.number_of_bombs = 3;
+
+        // Initialize the board with starting discs
+        discs[0] = 1L << BitBoards.square(3, 3) | 1L << BitBoards.square(4, 4);
+        discs[1] = 1L << BitBoards.square(3, 4) | 1L << BitBoards.square(4, 3);
+        bombs = 0;
+        unflippables = 0;
+        side = 0;
+    }
+
+    /**
+     * Undoes the last move made.
+     */
+    @Override
+    public void undoLastMove() {
+        if (historySize == 0) return;
+        historySize--;
+        long flips = historyFlips[historySize];
+        int square = historyMoves[historySize] & 63;
+        int kind = historyMoves[historySize] >>> 6;
+        long bit = 1L << square;
+
+        // Give the turn back to the player who made the move
+        side ^= 1;
+        if (kind == BitBoards.BOMB) currentPlayer().number_of_bombs++;
+        else if (kind == BitBoards.UNFLIPPABLE) currentPlayer().number_of_unflippedable++;
+
+        discs[side] &= ~(bit | flips);
+        discs[side ^ 1] |= flips;
+        bombs &= ~bit;
+        unflippables &= ~bit;
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Static helpers for the 64-bit board representation used by {@link BitBoardLogic}.
+ * A square (row, col) is stored in bit {@code row * 8 + col} of a long, so a whole board layer
+ * (the discs of one player, all bombs, all unflippable discs...) fits in a single mask.
+ *
+ * The flip rules implemented here are the same as the ones in {@link GameLogic}:
+ * - A line of opponent discs closed by one of the mover's discs is flipped.
+ * - Opponent unflippable discs inside such a line are skipped over and never flipped.
+ * - A flipped bomb flips every flippable opponent disc around it, and chains into other opponent bombs.
+ */
+public final class BitBoards {
+
+    // Disc kinds, used wherever a disc type has to be stored as a number
+    public static final int SIMPLE = 0;
+    public static final int BOMB = 1;
+    public static final int UNFLIPPABLE = 2;
+
+    private static final long NOT_COL_0 = 0xFEFEFEFEFEFEFEFEL; // Every square except the left column
+    private static final long NOT_COL_7 = 0x7F7F7F7F7F7F7F7FL; // Every square except the right column
+
+    // The 8 directions as bit shifts, and the mask that removes squares that wrapped around a row
+    private static final int[] DIRECTIONS = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final long[] DIRECTION_MASKS = {
+            NOT_COL_7, -1L, NOT_COL_0, NOT_COL_7, NOT_COL_0, NOT_COL_7, -1L, NOT_COL_0
+    };
+
+    /**
+     * The 8-neighbourhood of every square, used to resolve bomb explosions.
+     */
+    public static final long[] NEIGHBOURS = new long[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            long bit = 1L << square;
+            long around = 0;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                around |= shift(bit, d);
+            }
+            NEIGHBOURS[square] = around;
+        }
+    }
+
+    private BitBoards() {
+    }
+
+    /**
+     * Returns the square index of a board position.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return The square index, between 0 and 63.
+     */
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    /**
+     * Returns the disc kind (SIMPLE, BOMB or UNFLIPPABLE) of a disc.
+     *
+     * @param disc The disc to check.
+     * @return The kind of the disc.
+     */
+    public static int kindOf(Disc disc) {
+        if (disc instanceof BombDisc) return BOMB;
+        if (disc instanceof UnflippableDisc) return UNFLIPPABLE;
+        return SIMPLE;
+    }
+
+    /**
+     * Moves every square of a mask one step in the given direction, dropping squares that leave the board.
+     *
+     * @param x         The mask to shift.
+     * @param direction Index of the direction in {@link #DIRECTIONS}.
+     * @return The shifted mask.
+     */
+    private static long shift(long x, int direction) {
+        int amount = DIRECTIONS[direction];
+        long shifted = amount > 0 ? x << amount : x >>> -amount;
+        return shifted & DIRECTION_MASKS[direction];
+    }
+
+    /**
+     * Computes all the squares where the mover can place a disc.
+     * A square is legal if, in at least one direction, it is followed by a run of opponent discs
+     * that contains at least one flippable disc and is closed by one of the mover's discs.
+     *
+     * @param own          The discs of the player to move.
+     * @param opp          The discs of the opponent.
+     * @param unflippables All the unflippable discs on the board.
+     * @return A mask of the legal squares.
+     */
+    public static long legalMoves(long own, long opp, long unflippables) {
+        long flippable = opp & ~unflippables;
+        long locked = opp & unflippables;
+        // One call per direction with constant shifts, so that the JIT compiler can fold them
+        long moves = runsDown(own, opp, flippable, locked, 9, NOT_COL_0)
+                | runsDown(own, opp, flippable, locked, 8, -1L)
+                | runsDown(own, opp, flippable, locked, 7, NOT_COL_7)
+                | runsDown(own, opp, flippable, locked, 1, NOT_COL_0)
+                | runsUp(own, opp, flippable, locked, 1, NOT_COL_7)
+                | runsUp(own, opp, flippable, locked, 7, NOT_COL_0)
+                | runsUp(own, opp, flippable, locked, 8, -1L)
+                | runsUp(own, opp, flippable, locked, 9, NOT_COL_7);
+        return moves & ~(own | opp);
+    }
+
+    /**
+     * Finds the squares just past every run of opponent discs that starts next to one of our discs and contains
+     * a flippable disc, going towards higher square indexes.
+     * Runs are grown one step at a time: 'open' runs already contain a flippable disc, 'closed' runs only unflippable
+     * ones. A run holds at most 6 discs, so 5 steps after the first disc are enough.
+     *
+     * @param own       The discs of the player to move.
+     * @param opp       The discs of the opponent.
+     * @param flippable The flippable discs of the opponent.
+     * @param locked    The unflippable discs of the opponent.
+     * @param amount    The shift of one step in this direction.
+     * @param mask      The squares that are not reached by wrapping around a row.
+     * @return The squares after the open runs, empty or not.
+     */
+    private static long runsDown(long own, long opp, long flippable, long locked, int amount, long mask) {
+        long start = own << amount & mask;
+        long open = start & flippable;
+        long closed = start & locked;
+        for (int i = 0; i < 5; i++) {
+            long step = closed << amount & mask;
+            open |= (open << amount & mask & opp) | (step & flippable);
+            closed |= step & locked;
+        }
+        return open << amount & mask;
+    }
+
+    /**
+     * Same as {@link #runsDown(long, long, long, long, int, long)}, going towards lower square indexes.
+     *
+     * @param own       The discs of the player to move.
+     * @param opp       The discs of the opponent.
+     * @param flippable The flippable discs of the opponent.
+     * @param locked    The unflippable discs of the opponent.
+     * @param amount    The shift of one step in this direction.
+     * @param mask      The squares that are not reached by wrapping around a row.
+     * @return The squares after the open runs, empty or not.
+     */
+    private static long runsUp(long own, long opp, long flippable, long locked, int amount, long mask) {
+        long start = own >>> amount & mask;
+        long open = start & flippable;
+        long closed = start & locked;
+        for (int i = 0; i < 5; i++) {
+            long step = closed >>> amount & mask;
+            open |= (open >>> amount & mask & opp) | (step & flippable);
+            closed |= step & locked;
+        }
+        return open >>> amount & mask;
+    }
+
+    /**
+     * Computes all the discs that would be flipped by placing a disc on the given square,
+     * including the discs flipped by bomb explosions.
+     *
+     * @param square       The square where the disc is placed.
+     * @param own          The discs of the player to move.
+     * @param opp          The discs of the opponent.
+     * @param unflippables All the unflippable discs on the board.
+     * @param bombs        All the bomb discs on the board.
+     * @return A mask of the flipped discs, empty if the move is not legal.
+     */
+    public static long flips(int square, long own, long opp, long unflippables, long bombs) {
+        long start = 1L << square;
+        long flips = runDown(start, own, opp, 9, NOT_COL_0)
+                | runDown(start, own, opp, 8, -1L)
+                | runDown(start, own, opp, 7, NOT_COL_7)
+                | runDown(start, own, opp, 1, NOT_COL_0)
+                | runUp(start, own, opp, 1, NOT_COL_7)
+                | runUp(start, own, opp, 7, NOT_COL_0)
+                | runUp(start, own, opp, 8, -1L)
+                | runUp(start, own, opp, 9, NOT_COL_7);
+        return cascade(flips & ~unflippables, opp, unflippables, bombs);
+    }
+
+    /**
+     * Walks from a square over opponent discs towards higher square indexes.
+     *
+     * @param start  The square where the disc is placed, as a mask.
+     * @param own    The discs of the player to move.
+     * @param opp    The discs of the opponent.
+     * @param amount The shift of one step in this direction.
+     * @param mask   The squares that are not reached by wrapping around a row.
+     * @return The opponent discs walked over, or 0 if the run is not closed by one of our discs.
+     */
+    private static long runDown(long start, long own, long opp, int amount, long mask) {
+        long run = 0;
+        long x = start << amount & mask;
+        while ((x & opp) != 0) {
+            run |= x;
+            x = x << amount & mask;
+        }
+        return (x & own) != 0 ? run : 0;
+    }
+
+    /**
+     * Same as {@link #runDown(long, long, long, int, long)}, going towards lower square indexes.
+     *
+     * @param start  The square where the disc is placed, as a mask.
+     * @param own    The discs of the player to move.
+     * @param opp    The discs of the opponent.
+     * @param amount The shift of one step in this direction.
+     * @param mask   The squares that are not reached by wrapping around a row.
+     * @return The opponent discs walked over, or 0 if the run is not closed by one of our discs.
+     */
+    private static long runUp(long start, long own, long opp, int amount, long mask) {
+        long run = 0;
+        long x = start >>> amount & mask;
+        while ((x & opp) != 0) {
+            run |= x;
+            x = x >>> amount & mask;
+        }
+        return (x & own) != 0 ? run : 0;
+    }
+
+    /**
+     * Adds the discs flipped by bomb explosions to a set of flips.
+     * Every flipped bomb flips the flippable opponent discs around it, and a flipped opponent bomb
+     * explodes in turn. Each bomb is handled once, so the cost is bounded by the number of bombs.
+     *
+     * @param flips        The discs flipped directly by the move.
+     * @param opp          The discs of the opponent.
+     * @param unflippables All the unflippable discs on the board.
+     * @param bombs        All the bomb discs on the board.
+     * @return The flips together with every disc flipped by an explosion.
+     */
+    public static long cascade(long flips, long opp, long unflippables, long bombs) {
+        long flippable = opp & ~unflippables;
+        long pending = flips & bombs;
+        while (pending != 0) {
+            int bomb = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1;
+            long blast = NEIGHBOURS[bomb] & flippable & ~flips;
+            flips |= blast;
+            pending |= blast & bombs; // Newly flipped bombs explode as well
+        }
+        return flips;
+    }
+}
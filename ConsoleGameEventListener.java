@@ -0,0 +1,100 @@
+import java.io.PrintStream;
+
+/**
+ * A game event listener that prints every event as a line of text, in the format the game has always used
+ * ("Player 1 placed a ⬤ in (2,3)", "Player 1 flipped the ⬤ in (3,3)", ...).
+ */
+public class ConsoleGameEventListener implements GameEventListener {
+    private final PrintStream out;
+
+    /**
+     * Constructs a listener that prints to the standard output.
+     */
+    public ConsoleGameEventListener() {
+        this(System.out);
+    }
+
+    /**
+     * Constructs a listener that prints to the given stream.
+     *
+     * @param out The stream to print to.
+     */
+    public ConsoleGameEventListener(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Returns the name of a player as printed in the messages.
+     *
+     * @param player The player.
+     * @return "Player 1" or "Player 2".
+     */
+    private static String name(Player player) {
+        return player.isPlayerOne() ? "Player 1" : "Player 2";
+    }
+
+    @Override
+    public void discPlaced(Player player, Disc disc, int row, int col) {
+        out.println(name(player) + " placed a " + disc.getType() + " in (" + row + "," + col + ")");
+    }
+
+    @Override
+    public void discFlipped(Player player, Disc disc, int row, int col) {
+        out.println(name(player) + " flipped the " + disc.getType() + " in (" + row + "," + col + ")");
+    }
+
+    @Override
+    public void moveFinished() {
+        out.println();
+    }
+
+    @Override
+    public void gameOver(Player p1, int player1Score, Player p2, int player2Score) {
+        if (player1Score > player2Score) {
+            printWinner(p1, player1Score, p2, player2Score);
+        } else if (player2Score > player1Score) {
+            printWinner(p2, player2Score, p1, player1Score);
+        } else {
+            out.println("It's a tie! Both players have " + player1Score + " discs.");
+        }
+    }
+
+    /**
+     * Prints the winner of the game.
+     *
+     * @param winner    The player who won the game.
+     * @param winScore  The score of the winning player.
+     * @param loser     The player who lost the game.
+     * @param loseScore The score of the losing player.
+     */
+    private void printWinner(Player winner, int winScore, Player loser, int loseScore) {
+        out.println("Player " + (winner.isPlayerOne() ? "1" : "2") +
+                " wins with " + winScore + " discs! Player " +
+                (loser.isPlayerOne() ? "1" : "2") + " had " + loseScore + " discs.");
+    }
+
+    @Override
+    public void nothingToUndo() {
+        out.println("\tNo previous move available to undo.");
+    }
+
+    @Override
+    public void undoStarted() {
+        out.println("Undoing last move:");
+    }
+
+    @Override
+    public void discRemoved(Disc disc, int row, int col) {
+        out.println("\tUndo: removing " + disc.getType() + " from (" + row + "," + col + ")");
+    }
+
+    @Override
+    public void discFlippedBack(Disc disc, int row, int col) {
+        out.println("\tUndo: flipping back " + disc.getType() + " in (" + row + "," + col + ")");
+    }
+
+    @Override
+    public void undoFinished() {
+        out.println();
+    }
+}
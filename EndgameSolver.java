@@ -0,0 +1,359 @@
+/**
+ * A perfect solver for the end of the game. It searches every move until the game is over and returns the exact
+ * final disc difference, so it is only used when few empty squares are left (see {@link #defaultEmpties}).
+ * Bombs and unflippable discs are searched like any other move, and the flips, including bomb cascades, follow the
+ * rules of {@link GameLogic} (see {@link BitBoards}).
+ *
+ * Two modes are available:
+ * - Exact: the final disc difference of perfect play. It is found with a series of null-window searches (MTD(f)),
+ *   each of which only asks whether the result is above a guess, starting from the win/loss/draw result.
+ * - Win/loss/draw: only the sign of that difference, which prunes much more and runs faster.
+ *
+ * Moves are ordered so that alpha-beta cuts early:
+ * - Fastest-first: moves that leave the opponent fewer replies come first.
+ * - Parity: among those, moves into a quadrant with an odd number of empty squares come first, since the player who
+ *   fills such a region last usually gets the last flips.
+ * - Near the end of the search, where ordering costs more than it saves, only parity is used.
+ *
+ * A position is cut off without searching when the opponent's stable discs (see {@link Stability}) already keep the
+ * result below what the player to move is sure to get elsewhere.
+ *
+ * Results of positions with enough empty squares are kept in a {@link TranspositionTable}, since special discs make
+ * many move orders reach the same position. A result is a fact about the position, so the table is kept between calls.
+ */
+public class EndgameSolver {
+
+    /**
+     * The number of empty squares at or below which the AI players try the solver. With bombs and unflippable discs
+     * still in hand, the win/loss/draw result of 18 empty squares usually takes a few hundred milliseconds, and the
+     * exact result of 14 to 16; the players fall back to their regular search when the solver runs out of time.
+     */
+    public static final int defaultEmpties = 18;
+
+    private static final int maxPly = 64;
+    private static final int fastestFirstEmpties = 7; // Below this, moves are only ordered by parity
+    private static final int tableEmpties = 6;        // Below this, positions are not stored in the table
+    private static final int stabilityEmpties = 8;    // Below this, stable discs are not counted
+    private static final int timeCheckInterval = 4096;
+    private static final int defaultTableSize = 4; // Megabytes
+    private static final long[] QUADRANTS = {
+            0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L
+    };
+    private static final int[] KIND_ORDER = {BitBoards.UNFLIPPABLE, BitBoards.SIMPLE, BitBoards.BOMB};
+
+    private TranspositionTable table = new PackedTranspositionTable(defaultTableSize);
+    private SearchBoard board;
+    private final int[][] moveStack = new int[maxPly + 1][SearchBoard.maxMoves];
+    private final long[][] flipStack = new long[maxPly + 1][SearchBoard.maxMoves];
+    private final int[] squareKeys = new int[64]; // Ordering key of every square, lower is searched first
+    private final long[] squareFlips = new long[64]; // Flips of every square, while ordering moves
+
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private int score;
+    private int rootBestMove;
+
+    /**
+     * Solves a position and returns the best move, unless the deadline passes first.
+     * The board is left as it was.
+     *
+     * @param board    The position to solve.
+     * @param exact    true for the exact disc difference, false for win/loss/draw only.
+     * @param deadline The System.nanoTime() value at which the solver gives up.
+     * @return The best move, encoded as in {@link SearchBoard}, or -1 if the player to move has no moves or the
+     *         deadline passed (see {@link #isSolved()}).
+     */
+    public int solve(SearchBoard board, boolean exact, long deadline) {
+        this.board = board;
+        this.deadline = deadline;
+        aborted = false;
+        nodes = 0;
+        table.newSearch();
+
+        long legal = board.legalMoves();
+        if (legal == 0) {
+            score = exact ? board.discDifference() : Integer.signum(board.discDifference());
+            return -1;
+        }
+        int count = orderMoves(legal, moveStack[0], flipStack[0]);
+
+        // Win/loss/draw first: a window around 0 only tells the sign of the result
+        int value = solveRoot(-1, 1, count);
+        if (aborted) return -1;
+        int bestMove = rootBestMove;
+        if (!exact) {
+            score = Integer.signum(value);
+            return bestMove;
+        }
+
+        // Then narrow the result down with null windows until the lower and upper bounds meet
+        int lower = value > 0 ? 1 : value == 0 ? 0 : -65;
+        int upper = value < 0 ? -1 : value == 0 ? 0 : 65;
+        int guess = value;
+        while (lower < upper) {
+            int beta = guess == lower ? guess + 1 : guess;
+            guess = solveRoot(beta - 1, beta, count);
+            if (aborted) return -1;
+            if (guess < beta) {
+                upper = guess;
+            } else {
+                lower = guess;
+                bestMove = rootBestMove;
+            }
+        }
+        score = lower;
+        return bestMove;
+    }
+
+    /**
+     * Finds a move that is proven to be the best, or at least proven not to lose, before the deadline.
+     * The win/loss/draw result is solved first; the exact result is then used to pick the move with the best final
+     * disc difference if there is time left. This is how the AI players use the solver near the end of the game.
+     *
+     * @param board    The position to solve. It is left as it was.
+     * @param deadline The System.nanoTime() value at which the solver gives up.
+     * @return The move to play, or -1 if nothing was proven in time, or if the position is lost and its exact
+     *         result is unknown, in which case a regular search should choose the move.
+     */
+    public int provenMove(SearchBoard board, long deadline) {
+        int move = solve(board, false, deadline);
+        if (!isSolved()) return -1;
+        int outcome = score;
+        long outcomeNodes = nodes;
+        int exactMove = solve(board, true, deadline);
+        nodes += outcomeNodes;
+        if (isSolved()) return exactMove;
+        return outcome >= 0 ? move : -1;
+    }
+
+    /**
+     * Searches every root move with a window. The moves are those generated at ply 0.
+     * The move that raised the result the most is remembered, and moved to the front for the next search.
+     *
+     * @param alpha The lower end of the window.
+     * @param beta  The upper end of the window.
+     * @param count The number of root moves.
+     * @return The result, or a bound of it outside the window.
+     */
+    private int solveRoot(int alpha, int beta, int count) {
+        int[] moves = moveStack[0];
+        long[] flips = flipStack[0];
+        int best = -65;
+        int bestIndex = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i], flips[i]);
+            int value = -solve(-beta, -alpha, 1);
+            board.unmakeMove();
+            if (aborted) return 0;
+            if (value > best) {
+                best = value;
+                bestIndex = i;
+                if (value > alpha) alpha = value;
+                if (alpha >= beta) break;
+            }
+        }
+        rootBestMove = moves[bestIndex];
+        moveToFront(moves, flips, count, rootBestMove);
+        return best;
+    }
+
+    /**
+     * Searches a position to the end of the game.
+     *
+     * @param alpha The score the player to move is already sure to get.
+     * @param beta  The score above which the opponent will avoid this position.
+     * @param ply   The distance from the root.
+     * @return The final disc difference for the player to move, or a bound of it outside the window.
+     */
+    private int solve(int alpha, int beta, int ply) {
+        if (++nodes % timeCheckInterval == 0 && System.nanoTime() > deadline) aborted = true;
+        if (aborted) return 0;
+
+        long legal = board.legalMoves();
+        if (legal == 0) return board.discDifference();
+
+        // The last empty square: the game ends after it whatever disc is placed
+        int empties = Long.bitCount(board.empty());
+        if (empties == 1) {
+            int flips = Long.bitCount(board.flips(Long.numberOfTrailingZeros(legal)));
+            return board.discDifference() + 1 + 2 * flips;
+        }
+
+        // Narrow the window with what is already known about this position
+        long hash = 0;
+        int hashMove = -1;
+        boolean useTable = empties >= tableEmpties;
+        if (useTable) {
+            hash = board.hash();
+            long entry = table.probe(hash);
+            if (entry != 0) {
+                int value = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return value;
+                if (bound == TranspositionTable.LOWER && value > alpha) alpha = value;
+                else if (bound == TranspositionTable.UPPER && value < beta) beta = value;
+                if (alpha >= beta) return value;
+                hashMove = TranspositionTable.move(entry);
+            }
+        }
+
+        // The opponent keeps its stable discs whatever happens, which caps the final difference. Only worth computing
+        // when the opponent has enough discs for the cap to fall below alpha
+        if (empties >= stabilityEmpties && alpha >= 64 - 2 * Long.bitCount(board.opponent())) {
+            int upper = 64 - 2 * Long.bitCount(Stability.stableDiscs(board, false));
+            if (upper <= alpha) return upper;
+        }
+
+        int[] moves = moveStack[ply];
+        long[] flips = flipStack[ply];
+        int count = orderMoves(legal, moves, flips);
+        if (hashMove >= 0) moveToFront(moves, flips, count, hashMove);
+        int originalAlpha = alpha;
+        int best = -65;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i], flips[i]);
+            int value = -solve(-beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (aborted) return 0;
+            if (value > best) {
+                best = value;
+                bestMove = moves[i];
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+
+        if (useTable) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(hash, empties, bound, best, bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * Moves a move and its flips to the front of a move list, if the move is in the list.
+     *
+     * @param moves The move list.
+     * @param flips The flips of each move.
+     * @param count The number of moves in the list.
+     * @param move  The move to search first.
+     */
+    private static void moveToFront(int[] moves, long[] flips, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                long moveFlips = flips[i];
+                System.arraycopy(moves, 0, moves, 1, i);
+                System.arraycopy(flips, 0, flips, 1, i);
+                moves[0] = move;
+                flips[0] = moveFlips;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets the table the solver keeps its results in.
+     *
+     * @param table The table, which must not be shared with a search that stores other kinds of scores.
+     */
+    public void setTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Generates the moves of the player to move, best candidates first.
+     *
+     * @param legal The legal squares.
+     * @param moves The buffer for the moves.
+     * @param flips The buffer for the flips of each move.
+     * @return The number of moves.
+     */
+    private int orderMoves(long legal, int[] moves, long[] flips) {
+        long empty = board.empty();
+        boolean fastestFirst = Long.bitCount(empty) >= fastestFirstEmpties;
+        long oddRegions = 0;
+        for (long quadrant : QUADRANTS) {
+            if ((Long.bitCount(empty & quadrant) & 1) != 0) oddRegions |= quadrant;
+        }
+
+        // Order the squares, then add every kind of disc on each square
+        int squares = 0;
+        for (long rest = legal; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            int key = (oddRegions & 1L << square) != 0 ? 0 : 1;
+            squareFlips[square] = board.flips(square);
+            if (fastestFirst) {
+                board.makeMove(SearchBoard.move(square, BitBoards.SIMPLE), squareFlips[square]);
+                key += Long.bitCount(board.legalMoves()) << 1;
+                board.unmakeMove();
+            }
+            squareKeys[square] = key;
+            // Insertion sort on the keys, the lists are short
+            int i = squares++;
+            while (i > 0 && squareKeys[SearchBoard.squareOf(moves[i - 1])] > key) {
+                moves[i] = moves[i - 1];
+                i--;
+            }
+            moves[i] = square;
+        }
+
+        int count = squares * 3;
+        int written = count;
+        for (int s = squares - 1; s >= 0; s--) {
+            int square = moves[s];
+            for (int k = KIND_ORDER.length - 1; k >= 0; k--) {
+                int kind = KIND_ORDER[k];
+                if (kind == BitBoards.BOMB && board.bombsLeft(true) == 0
+                        || kind == BitBoards.UNFLIPPABLE && board.unflippablesLeft(true) == 0) continue;
+                written--;
+                moves[written] = SearchBoard.move(square, kind);
+                flips[written] = squareFlips[square];
+            }
+        }
+        // Close the gaps left by the kinds the player has run out of
+        System.arraycopy(moves, written, moves, 0, count - written);
+        System.arraycopy(flips, written, flips, 0, count - written);
+        return count - written;
+    }
+
+    /**
+     * Returns the table the solver keeps its results in, which reports its hit rate.
+     *
+     * @return The table.
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Checks if the last call to solve finished before its deadline.
+     *
+     * @return true if the last position was solved.
+     */
+    public boolean isSolved() {
+        return !aborted;
+    }
+
+    /**
+     * Returns the result of the last solved position, for the player who was to move.
+     *
+     * @return The final disc difference in exact mode, or -1, 0 or 1 for a loss, draw or win.
+     */
+    public int score() {
+        return score;
+    }
+
+    /**
+     * Returns the number of positions visited by the last call to solve or provenMove.
+     *
+     * @return The node count.
+     */
+    public long nodes() {
+        return nodes;
+    }
+}
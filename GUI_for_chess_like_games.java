@@ -2,7 +2,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
-import java.util.List;
 
 /**
  * IMPORTANT:
@@ -24,6 +23,7 @@ public class GUI_for_chess_like_games extends JFrame {
     private final JSlider aiSpeedSlider = new JSlider(JSlider.VERTICAL, 0, 2000, 1000);; // Slider to control AI response speed
     private boolean showColor = true;
     private boolean showNumbers = true;
+    private final MoveList possibleMoves = new MoveList(); // Reused by enhanceColor
     private final JCheckBox numbersCheckBox = new JCheckBox(new AbstractAction() {
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -310,9 +310,9 @@ public class GUI_for_chess_like_games extends JFrame {
     }
 
     private void enhanceColor() {
-        List<Position> possiblePositions = this.gameLogic.ValidMoves();
-        for (Position p : possiblePositions) {
-            JButton button = buttons[p.row()][p.col()];
+        int count = this.gameLogic.generateMoves(possibleMoves);
+        for (int i = 0; i < count; i++) {
+            JButton button = buttons[possibleMoves.row(i)][possibleMoves.col(i)];
             Color currentColor = button.getBackground();
 
             // Determine if the current color is closer to white or black
@@ -329,7 +329,7 @@ public class GUI_for_chess_like_games extends JFrame {
 
             button.setBackground(enhancedColor);
             if (showNumbers) {
-                int num = gameLogic.countFlips(p);
+                int num = possibleMoves.flipCount(i);
                 button.setForeground(Color.black);
                 button.setText(String.valueOf(num));
             }
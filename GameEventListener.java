@@ -0,0 +1,95 @@
+/**
+ * Receives the events published by {@link GameLogic}: placed and flipped discs, undone moves and the end of the game.
+ * Every method does nothing by default, so a listener only overrides the events it cares about.
+ *
+ * Implementations shipped with the game:
+ * - {@link #NONE} ignores every event, for headless simulations that shouldn't pay for logging.
+ * - {@link ConsoleGameEventListener} prints the events as text, the way the game always reported its moves.
+ * - {@link AsyncGameEventListener} hands the events to another listener on a background thread, in batches,
+ *   for example to write them to a file without slowing down the game.
+ */
+public interface GameEventListener {
+
+    /**
+     * A listener that ignores every event.
+     */
+    GameEventListener NONE = new GameEventListener() {
+    };
+
+    /**
+     * Called when a player places a disc on the board.
+     *
+     * @param player The player who placed the disc.
+     * @param disc   The placed disc.
+     * @param row    The row of the disc.
+     * @param col    The column of the disc.
+     */
+    default void discPlaced(Player player, Disc disc, int row, int col) {
+    }
+
+    /**
+     * Called for every disc flipped by a move, after it has been flipped.
+     *
+     * @param player The player who made the move.
+     * @param disc   The disc after the flip.
+     * @param row    The row of the disc.
+     * @param col    The column of the disc.
+     */
+    default void discFlipped(Player player, Disc disc, int row, int col) {
+    }
+
+    /**
+     * Called when a move, and the end of the game it may have caused, has been fully reported.
+     */
+    default void moveFinished() {
+    }
+
+    /**
+     * Called when the game ends.
+     *
+     * @param p1           The first player.
+     * @param player1Score The number of discs of the first player.
+     * @param p2           The second player.
+     * @param player2Score The number of discs of the second player.
+     */
+    default void gameOver(Player p1, int player1Score, Player p2, int player2Score) {
+    }
+
+    /**
+     * Called when an undo is requested but there is no move to undo.
+     */
+    default void nothingToUndo() {
+    }
+
+    /**
+     * Called when the last move starts being undone.
+     */
+    default void undoStarted() {
+    }
+
+    /**
+     * Called when the disc placed by the undone move is removed from the board.
+     *
+     * @param disc The removed disc.
+     * @param row  The row of the disc.
+     * @param col  The column of the disc.
+     */
+    default void discRemoved(Disc disc, int row, int col) {
+    }
+
+    /**
+     * Called for every disc flipped back by an undo, after it has been flipped.
+     *
+     * @param disc The disc after the flip.
+     * @param row  The row of the disc.
+     * @param col  The column of the disc.
+     */
+    default void discFlippedBack(Disc disc, int row, int col) {
+    }
+
+    /**
+     * Called when an undo has been fully reported.
+     */
+    default void undoFinished() {
+    }
+}
@@ -3,7 +3,7 @@ import java.util.*;
 /**
  * This class represents the logic of the game, implementing the PlayableLogic interface.
  * It manages the game state, such as the game board, turns, move history, and determines if a move is valid.
- * It also provides methods to update the game state,clone it for AI purposes, print information, and reset the game.
+ * It also provides methods to update the game state,clone it for AI purposes, report game events to a listener, and reset the game.
  */
 public class GameLogic implements PlayableLogic {
     private Disc[][] board;
@@ -12,6 +12,27 @@ public class GameLogic implements PlayableLogic {
     private Player currentTurn; // Track whose turn it is
     private boolean gameFinished = false; // Track if the game is finished
     private Stack<Move> moveHistory; // For undo functionality
+    // Cache of the valid moves of the current position, cleared whenever a disc is placed or removed
+    private final MoveList moveBuffer = new MoveList();
+    private final long[] cachedFlips = new long[boardSize * boardSize]; // Flips of each square, 0 if not a valid move
+    private boolean movesCached = false;
+    private GameEventListener listener = new ConsoleGameEventListener(); // Receives moves, flips, undos and results
+    private Disc[][] sharedDiscs; // One disc per player and kind (indexed by BitBoards kind), swapped in by flips and makeMove
+    private int[][] discCounts = new int[2][3]; // Number of discs on the board per player and kind, kept up to date by every move
+    private long boardHash; // Zobrist hash of the discs on the board, kept up to date by every move
+
+    // Masks of the board as seen by the player to move, filled by scanBoard
+    private long ownMask, oppMask, unflippableMask, bombMask;
+
+    // Undo stack of makeMove: the discs flipped by each move, and the square and kind of the placed disc
+    private final long[] searchFlips = new long[boardSize * boardSize];
+    private final int[] searchMoves = new int[boardSize * boardSize];
+    private int searchDepth;
+
+    // Moves, getFlips calls, move cache hits and bomb cascades of every game, published through JMX
+    private static final GameLogicMetrics metrics = GameLogicMetrics.get();
+    private long lineFlips;   // Discs flipped along lines, without the bombs, in the current call to getFlips
+    private int cascadeDiscs; // Discs flipped by bombs and not along any line in the last call to getFlips
 
     /**
      * Constructs a new GameLogic object, initializes the board, a moveHistory stack sets up players, and resets the game state.
@@ -19,44 +40,85 @@ public class GameLogic implements PlayableLogic {
     public GameLogic() {
         board = new Disc[boardSize][boardSize];
         moveHistory = new Stack<>();
-        this.p1 = new HumanPlayer(true);
-        this.p2 = new HumanPlayer(false);
+        setPlayers(new HumanPlayer(true), new HumanPlayer(false));
 
         reset();
     }
 
     /**
-     * Creates a deep copy of the current game state, including the board, players, move history, and game progress.
+     * Constructs a snapshot of another game, see {@link #snapshot(boolean)}.
      *
-     * @param isPlayerOne Indicates if the player is the first player for the cloned game.
-     * @return A new GameLogic instance with the cloned game state.
+     * @param source      The game to copy.
+     * @param withHistory true to copy the move history as well.
      */
-    public GameLogic cloneGame(boolean isPlayerOne) {
-        GameLogic clonedGame = new GameLogic();
-
-        // Clone the board (assuming board elements are not null)
-        clonedGame.board = new Disc[boardSize][boardSize];
+    private GameLogic(GameLogic source, boolean withHistory) {
+        // Discs on the board are never modified (flips swap in a shared disc), so copying the rows is enough
+        board = new Disc[boardSize][];
         for (int i = 0; i < boardSize; i++) {
-            System.arraycopy(this.board[i], 0, clonedGame.board[i], 0, boardSize);
+            board[i] = source.board[i].clone();
         }
+        moveHistory = new Stack<>();
+        if (withHistory) moveHistory.addAll(source.moveHistory);
 
-        // Clone the players
-        clonedGame.p1 = new HumanPlayer(isPlayerOne);
-        clonedGame.p2 = new HumanPlayer(!isPlayerOne);
-        clonedGame.p1.number_of_bombs = p1.number_of_bombs;
-        clonedGame.p2.number_of_unflippedable = p1.number_of_unflippedable;
+        // The snapshot gets its own players, so that its moves don't change the special disc counters of the source
+        p1 = copyPlayer(source.p1);
+        p2 = copyPlayer(source.p2);
+        currentTurn = source.isFirstPlayerTurn() ? p1 : p2;
+        sharedDiscs = source.sharedDiscs;
+        discCounts = new int[][]{source.discCounts[0].clone(), source.discCounts[1].clone()};
+        boardHash = source.boardHash;
+        gameFinished = source.gameFinished;
+        listener = GameEventListener.NONE; // Moves played on a snapshot are not reported
+    }
 
-        // Set the current turn based on the original game's state
-        clonedGame.currentTurn = (this.isFirstPlayerTurn()) ? clonedGame.p1 : clonedGame.p2;
+    /**
+     * Creates a stand-in for a player, holding the same side and special disc counters.
+     *
+     * @param player The player to copy.
+     * @return A human player with the same side and counters.
+     */
+    private static Player copyPlayer(Player player) {
+        Player copy = new HumanPlayer(player.isPlayerOne());
+        copy.number_of_bombs = player.number_of_bombs;
+        copy.number_of_unflippedable = player.number_of_unflippedable;
+        return copy;
+    }
 
-        // Clone the move history (using new stack)
-        clonedGame.moveHistory = new Stack<>();
-        clonedGame.moveHistory.addAll(this.moveHistory);
+    /**
+     * Creates an independent copy of the current game state, without the move history, for AI lookahead.
+     * See {@link #snapshot(boolean)}.
+     *
+     * @return A new GameLogic instance with the same position.
+     */
+    public GameLogic snapshot() {
+        return snapshot(false);
+    }
 
-        // Clone other relevant state
-        clonedGame.gameFinished = this.gameFinished;
+    /**
+     * Creates an independent copy of the current game state for AI lookahead.
+     * The copy costs one copy of the board rows: the discs themselves are shared, which is safe because
+     * GameLogic never modifies a disc once it is on the board. Moves played on the snapshot don't affect this game,
+     * its players or its counters, and are not reported to the game event listener.
+     * Discs are matched to players by side (first or second player), so players of the snapshot and of this game
+     * are interchangeable when reading the board.
+     *
+     * @param withHistory true to copy the move history too, so the moves played so far can be undone on the snapshot.
+     * @return A new GameLogic instance with the same position.
+     */
+    public GameLogic snapshot(boolean withHistory) {
+        return new GameLogic(this, withHistory);
+    }
 
-        return clonedGame;
+    /**
+     * Creates a copy of the current game state, including the board, players, move history, and game progress.
+     *
+     * @param isPlayerOne Not used anymore: the players of the copy always keep the sides of the original players.
+     * @return A new GameLogic instance with the cloned game state.
+     * @deprecated Use {@link #snapshot()}, which doesn't copy the move history.
+     */
+    @Deprecated
+    public GameLogic cloneGame(boolean isPlayerOne) {
+        return snapshot(true);
     }
 
     /**
@@ -87,18 +149,20 @@ public class GameLogic implements PlayableLogic {
         else if (disc instanceof BombDisc) currentTurn.number_of_bombs--;
         else if (disc instanceof UnflippableDisc) currentTurn.number_of_unflippedable--;
 
-        board[row][col] = disc;
-        printDiscLocate(disc.getType(), a);
+        placeDisc(row, col, disc);
+        listener.discPlaced(currentTurn, disc, row, col);
         Move m1 = new Move(a, disc);
-        List<Position> flipped = new ArrayList<>(getFlips(a));
+        PositionSet flipped = getFlips(a);
         m1.setFlippedDiscs(flipped);
         flipDiscs(m1);
-        printFlippedPlayer(flipped);
+        publishFlips(flipped);
         moveHistory.push(m1);
+        metrics.moveApplied();
+        if (cascadeDiscs > 0) metrics.bombCascade(cascadeDiscs);
         currentTurn = currentTurn.equals(p1) ? p2 : p1;
 
         updateGame();
-        System.out.println();
+        listener.moveFinished();
         return true;
     }
 
@@ -112,100 +176,155 @@ public class GameLogic implements PlayableLogic {
     }
 
     /**
-     * Prints the discs flipped by the current player.
+     * Returns the moves played since the last reset, oldest first, as a read-only view.
+     * The view follows the game: moves made or undone later show up in it.
      *
-     * @param flipped A list of positions representing flipped discs.
+     * @return The move history.
      */
-    private void printFlippedPlayer(List<Position> flipped) {
-        for (Position pos : flipped) {
-            String type = board[pos.row()][pos.col()].getType();
-            System.out.println(
-                    isFirstPlayerTurn() ?
-                            "Player 1 flipped the " + type + " in (" + pos.row() + "," + pos.col() + ")" :
-                            "Player 2 flipped the " + type + " in (" + pos.row() + "," + pos.col() + ")"
-            );
-        }
+    public List<Move> getMoveHistory() {
+        return Collections.unmodifiableList(moveHistory);
     }
 
     /**
-     * Prints the discs flipped when undoing a move.
+     * Sets the listener that receives the game events (placed and flipped discs, undone moves, end of the game).
+     * By default the events are printed to the console; use {@link GameEventListener#NONE} to ignore them.
      *
-     * @param flipped A list of positions representing flipped discs.
+     * @param listener The listener of the game events.
      */
-    private void printFlippedUndo(List<Position> flipped) {
+    public void setGameEventListener(GameEventListener listener) {
+        this.listener = listener == null ? GameEventListener.NONE : listener;
+    }
+
+    /**
+     * Publishes the discs flipped by the current player.
+     *
+     * @param flipped A set of positions representing flipped discs.
+     */
+    private void publishFlips(PositionSet flipped) {
         for (Position pos : flipped) {
-            Disc disc = board[pos.row()][pos.col()];
-            if (disc != null) {
-                String type = disc.getType();
-                System.out.println("\tUndo: flipping back " + type + " in (" + pos.row() + "," + pos.col() + ")");
-            }
+            listener.discFlipped(currentTurn, board[pos.row()][pos.col()], pos.row(), pos.col());
         }
     }
 
     /**
-     * Prints the placement of a disc.
+     * Publishes the discs flipped back when undoing a move.
      *
-     * @param type The type of disc being placed.
-     * @param a    The position where the disc is placed.
+     * @param flipped A set of positions representing flipped discs.
      */
-    private void printDiscLocate(String type, Position a) {
-        System.out.println(
-                currentTurn == p1 ?
-                        "Player 1 placed a " + type + " in (" + a.row() + "," + a.col() + ")" :
-                        "Player 2 placed a " + type + " in (" + a.row() + "," + a.col() + ")"
-        );
+    private void publishFlipsUndo(PositionSet flipped) {
+        for (Position pos : flipped) {
+            Disc disc = board[pos.row()][pos.col()];
+            if (disc != null) {
+                listener.discFlippedBack(disc, pos.row(), pos.col());
+            }
+        }
     }
 
     /**
      * Updates the game state by checking for valid moves and determining the winner.
      */
     public void updateGame() {
-        if (ValidMoves().isEmpty()) {
+        ensureMoves();
+        if (moveBuffer.isEmpty()) {
             this.gameFinished = true;
             int player1Score = countPlayerDiscs(p1);
             int player2Score = countPlayerDiscs(p2);
             if (player1Score > player2Score) {
-                printWinner(p1, player1Score, p2, player2Score);
                 p1.wins++;
             } else if (player2Score > player1Score) {
-                printWinner(p2, player2Score, p1, player1Score);
                 p2.wins++;
-            } else {
-                System.out.println("It's a tie! Both players have " + player1Score + " discs.");
             }
+            listener.gameOver(p1, player1Score, p2, player2Score);
         }
     }
 
     /**
-     * Prints the winner of the game.
+     * Counts the number of discs owned by a given player on the board.
      *
-     * @param winner   The player who won the game.
-     * @param winScore The score of the winning player.
-     * @param loser    The player who lost the game.
-     * @param loseScore The score of the losing player.
+     * @param p1 The player whose discs are to be counted.
+     * @return The number of discs owned by the player.
      */
-    public void printWinner(Player winner, int winScore, Player loser, int loseScore) {
-        System.out.println("Player " + (winner.isPlayerOne() ? "1" : "2") +
-                " wins with " + winScore + " discs! Player " +
-                (loser.isPlayerOne() ? "1" : "2") + " had " + loseScore + " discs.");
+    public int countPlayerDiscs(Player p1) {
+        int[] counts = discCounts[sideOf(p1)];
+        return counts[BitBoards.SIMPLE] + counts[BitBoards.BOMB] + counts[BitBoards.UNFLIPPABLE];
     }
 
     /**
-     * Counts the number of discs owned by a given player on the board.
+     * Counts the number of discs of one kind owned by a given player on the board.
      *
-     * @param p1 The player whose discs are to be counted.
-     * @return The number of discs owned by the player.
+     * @param p1   The player whose discs are to be counted.
+     * @param kind The kind of disc (BitBoards.SIMPLE, BitBoards.BOMB or BitBoards.UNFLIPPABLE).
+     * @return The number of discs of that kind owned by the player.
      */
-    public int countPlayerDiscs(Player p1) {
-        int score = 0;
-        for (Disc[] d1 : board) {
-            for (Disc d2 : d1) {
-                if (d2 != null && p1.equals(d2.getOwner())) {
-                    score++;
-                }
-            }
-        }
-        return score;
+    public int countPlayerDiscs(Player p1, int kind) {
+        return discCounts[sideOf(p1)][kind];
+    }
+
+    /**
+     * Counts the number of discs of one kind on the board, for both players together.
+     *
+     * @param kind The kind of disc (BitBoards.SIMPLE, BitBoards.BOMB or BitBoards.UNFLIPPABLE).
+     * @return The number of discs of that kind on the board.
+     */
+    public int countDiscs(int kind) {
+        return discCounts[0][kind] + discCounts[1][kind];
+    }
+
+    /**
+     * Returns the Zobrist hash of the game state: every disc with its owner and kind, the side to move, and the number
+     * of bombs and unflippable discs each player has left. Equal states always have equal hashes, so the hash can
+     * key transposition tables, opening books or result caches.
+     * The board part is updated with every placed, removed or flipped disc, so this costs a few lookups.
+     *
+     * @return The 64-bit hash of the current state.
+     */
+    public long getHash() {
+        return boardHash ^ Zobrist.state(isFirstPlayerTurn(),
+                p1.number_of_bombs, p1.number_of_unflippedable, p2.number_of_bombs, p2.number_of_unflippedable);
+    }
+
+    /**
+     * Returns the board part of {@link #getHash()}: the Zobrist keys of every disc with its owner and kind, without the
+     * side to move or the special discs left. {@link SearchBoard} starts from it instead of hashing every square.
+     *
+     * @return The 64-bit hash of the discs on the board.
+     */
+    public long getBoardHash() {
+        return boardHash;
+    }
+
+    /**
+     * Puts a disc on an empty square and counts it.
+     *
+     * @param row  The row of the square.
+     * @param col  The column of the square.
+     * @param disc The disc to put.
+     */
+    private void placeDisc(int row, int col, Disc disc) {
+        movesCached = false;
+        board[row][col] = disc;
+        int owner = sideOf(disc.getOwner());
+        int kind = BitBoards.kindOf(disc);
+        discCounts[owner][kind]++;
+        boardHash ^= Zobrist.disc(BitBoards.square(row, col), owner, kind);
+    }
+
+    /**
+     * Removes a disc from the board and stops counting it.
+     *
+     * @param row The row of the disc.
+     * @param col The column of the disc.
+     * @return The removed disc.
+     */
+    private Disc removeDisc(int row, int col) {
+        movesCached = false;
+        Disc disc = board[row][col];
+        board[row][col] = null;
+        int owner = sideOf(disc.getOwner());
+        int kind = BitBoards.kindOf(disc);
+        discCounts[owner][kind]--;
+        boardHash ^= Zobrist.disc(BitBoards.square(row, col), owner, kind);
+        return disc;
     }
 
     /**
@@ -214,7 +333,7 @@ public class GameLogic implements PlayableLogic {
      * @param m1 The move containing the discs to flip.
      */
     public void flipDiscs(Move m1) {
-        List<Position> toBeFlip = m1.getFlippedDiscs();
+        PositionSet toBeFlip = m1.getFlippedDiscs();
 
         for (Position pos : toBeFlip) {
             flipDisc(pos);
@@ -291,14 +410,130 @@ public class GameLogic implements PlayableLogic {
      */
     @Override
     public List<Position> ValidMoves() {
-        List<Position> valid = new ArrayList<>();
+        ensureMoves();
+        int count = moveBuffer.size();
+        List<Position> valid = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            valid.add(moveBuffer.position(i));
+        }
+        return valid;
+    }
+
+    /**
+     * Fills a buffer with every valid move of the current player and the discs each move flips.
+     * The moves are computed once per position and cached, so repeated calls in the same turn are a copy.
+     *
+     * @param moves The buffer to fill. Its previous content is discarded.
+     * @return The number of valid moves.
+     */
+    @Override
+    public int generateMoves(MoveList moves) {
+        ensureMoves();
+        if (moves != moveBuffer) moves.copyFrom(moveBuffer);
+        return moves.size();
+    }
+
+    /**
+     * Computes the valid moves of the current position and their flips, unless they are already cached.
+     * The board is scanned once into bit masks, and the moves and flips are then computed on the masks
+     * with the same rules as getFlips.
+     */
+    private void ensureMoves() {
+        metrics.movesRequested(movesCached);
+        if (movesCached) return;
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            cachedFlips[moveBuffer.square(i)] = 0; // Forget the moves of the previous position
+        }
+
+        scanBoard();
+        moveBuffer.clear();
+        for (long legal = BitBoards.legalMoves(ownMask, oppMask, unflippableMask); legal != 0; legal &= legal - 1) {
+            int square = Long.numberOfTrailingZeros(legal);
+            long flips = BitBoards.flips(square, ownMask, oppMask, unflippableMask, bombMask);
+            moveBuffer.add(square, flips);
+            cachedFlips[square] = flips;
+        }
+        movesCached = true;
+    }
+
+    /**
+     * Scans the board once into bit masks of the current player's discs, the opponent's discs,
+     * the unflippable discs and the bomb discs.
+     */
+    private void scanBoard() {
+        long own = 0, opp = 0, unflippables = 0, bombs = 0;
         for (int i = 0; i < boardSize; i++) {
             for (int j = 0; j < boardSize; j++) {
-                Position p1 = new Position(i, j);
-                if (isValidMove(p1)) valid.add(p1);
+                Disc disc = board[i][j];
+                if (disc == null) continue;
+                long bit = 1L << BitBoards.square(i, j);
+                if (isOwnDisc(disc)) own |= bit;
+                else opp |= bit;
+                if (disc instanceof UnflippableDisc) unflippables |= bit;
+                else if (disc instanceof BombDisc) bombs |= bit;
             }
         }
-        return valid;
+        ownMask = own;
+        oppMask = opp;
+        unflippableMask = unflippables;
+        bombMask = bombs;
+    }
+
+    /**
+     * Plays a move silently, for search engines that explore the game in place.
+     * Unlike locate_disc, nothing is printed, the move history and the game-over state are left untouched,
+     * and no objects are allocated: the placed disc is a shared one, and the move is recorded in a small
+     * primitive undo stack so that {@link #unmakeMove()} can revert it exactly.
+     * Calls must be balanced with unmakeMove, and must not be interleaved with locate_disc or undoLastMove.
+     *
+     * @param square The square index of the move (row * 8 + col).
+     * @param kind   The kind of the placed disc (BitBoards.SIMPLE, BitBoards.BOMB or BitBoards.UNFLIPPABLE).
+     * @return true if the move is valid and was played, false otherwise.
+     */
+    public boolean makeMove(int square, int kind) {
+        int row = square / boardSize;
+        int col = square % boardSize;
+        if (board[row][col] != null) return false;
+        if (kind == BitBoards.BOMB && isBomb0() || kind == BitBoards.UNFLIPPABLE && isUnflip0()) return false;
+
+        long flips;
+        if (movesCached) {
+            flips = cachedFlips[square];
+        } else {
+            scanBoard();
+            flips = BitBoards.flips(square, ownMask, oppMask, unflippableMask, bombMask);
+        }
+        if (flips == 0) return false;
+
+        if (kind == BitBoards.BOMB) currentTurn.number_of_bombs--;
+        else if (kind == BitBoards.UNFLIPPABLE) currentTurn.number_of_unflippedable--;
+        placeDisc(row, col, sharedDiscs[sideOf(currentTurn)][kind]);
+        flipDiscs(flips);
+
+        searchFlips[searchDepth] = flips;
+        searchMoves[searchDepth] = square | kind << 6;
+        searchDepth++;
+        currentTurn = currentTurn.equals(p1) ? p2 : p1;
+        metrics.searchMoveApplied();
+        return true;
+    }
+
+    /**
+     * Reverts the last move played by {@link #makeMove(int, int)}, silently and without allocating.
+     */
+    public void unmakeMove() {
+        if (searchDepth == 0) return;
+        searchDepth--;
+        int square = searchMoves[searchDepth] & 63;
+        int kind = searchMoves[searchDepth] >>> 6;
+
+        // Give the turn back to the player who made the move
+        currentTurn = currentTurn.equals(p1) ? p2 : p1;
+        if (kind == BitBoards.BOMB) currentTurn.number_of_bombs++;
+        else if (kind == BitBoards.UNFLIPPABLE) currentTurn.number_of_unflippedable++;
+
+        removeDisc(square / boardSize, square % boardSize);
+        flipDiscs(searchFlips[searchDepth]);
     }
 
     /**
@@ -309,6 +544,12 @@ public class GameLogic implements PlayableLogic {
      */
     @Override
     public int countFlips(Position a) {
+        int row = a.row();
+        int col = a.col();
+        if (isValidPosition(row, col) && board[row][col] == null) {
+            ensureMoves();
+            return Long.bitCount(cachedFlips[BitBoards.square(row, col)]);
+        }
         return getFlips(a).size();
     }
 
@@ -318,9 +559,12 @@ public class GameLogic implements PlayableLogic {
      * @param position The position to check.
      * @return A set of positions where discs would be flipped.
      */
-    public Set<Position> getFlips(Position position) {
+    public PositionSet getFlips(Position position) {
+        metrics.getFlipsCalled();
+        lineFlips = 0;
+
         // Create a set to store the positions that should be flipped
-        Set<Position> flips = new HashSet<>();
+        PositionSet flips = new PositionSet();
 
         // Loop through all 8 directions
         for (int dx = -1; dx <= 1; dx++) {
@@ -331,28 +575,17 @@ public class GameLogic implements PlayableLogic {
             }
         }
 
-        flips.removeIf(currD2 -> { //Extra check to make sure the current player isn't flipping his discs back.
-            if (currD2 != null) {
-                Disc discAtPos = board[currD2.row()][currD2.col()];
-                return discAtPos != null && discAtPos.getOwner().equals(currentTurn);
+        for (Position currD2 : flips) { //Extra check to make sure the current player isn't flipping his discs back.
+            Disc discAtPos = board[currD2.row()][currD2.col()];
+            if (discAtPos != null && isOwnDisc(discAtPos)) {
+                flips.remove(currD2);
             }
-            return false;
-        });
-        removeDuplicates(flips);
+        }
+        // Counted on the union of all directions, since the lines of one direction may reach the bombs of another
+        cascadeDiscs = Long.bitCount(flips.bits() & ~lineFlips);
         return flips;
     }
 
-    /**
-     * Removes duplicate positions from the set of flips.
-     *
-     * @param positions The set of positions to remove duplicates from.
-     */
-    public void removeDuplicates(Set<Position> positions) {
-        Set<Position> uniquePositions = new HashSet<>(positions);
-        positions.clear();  // Clear the original list
-        positions.addAll(uniquePositions);  // Add the unique positions back
-    }
-
     /**
      * Retrieves the list of discs that would be flipped in a particular direction from a given position.
      *
@@ -361,10 +594,9 @@ public class GameLogic implements PlayableLogic {
      * @param dy    The change in column (direction).
      * @return A set of positions that would be flipped in the given direction.
      */
-    public Set<Position> getFlipsInDir(Position start, int dx, int dy) {
-        Set<Position> processedBombs = new HashSet<>();
-        Set<Position> flips = new HashSet<>();
-        Set<Position> potentialFlips = new HashSet<>(); // Tracks the opponent's discs in the direction
+    public PositionSet getFlipsInDir(Position start, int dx, int dy) {
+        PositionSet flips = new PositionSet();
+        PositionSet potentialFlips = new PositionSet(); // Tracks the opponent's discs in the direction
 
         int x = start.row() + dx;
         int y = start.col() + dy;
@@ -372,7 +604,6 @@ public class GameLogic implements PlayableLogic {
         // Loop until we either go out of bounds (end of board) or encounter an empty space
         while (isValidPosition(x, y)) {
             Disc currD = board[x][y]; // Get the disc at the current position
-            Position currP = new Position(x, y); // Current position
 
             if (currD == null) {
                 break; // We stop the sequence when encountering an empty space
@@ -380,21 +611,14 @@ public class GameLogic implements PlayableLogic {
 
             if (!isOwnDisc(currD) && !(currD instanceof UnflippableDisc)) {
                 // Add opponent's discs to potential flips
-                potentialFlips.add(currP);
+                potentialFlips.add(x, y);
             } else if (isOwnDisc(currD)) {
                 // When we encounter our own disc
                 if (!potentialFlips.isEmpty()) {
-                    // Commit the opponent discs (if any) to flips
+                    // Commit the opponent discs (if any) to flips, then let the bombs among them explode
                     flips.addAll(potentialFlips);
-
-                    // Set to track bombs that we need to process
-                    for (Position pos : potentialFlips) {
-                        Disc disc = board[pos.row()][pos.col()];
-                        if (disc instanceof BombDisc) {
-                            flips.remove(pos);
-                            triggerBomb(pos, flips, processedBombs);
-                        }
-                    }
+                    lineFlips |= potentialFlips.bits();
+                    triggerBombs(flips);
                 }
                 break;
             }
@@ -405,53 +629,51 @@ public class GameLogic implements PlayableLogic {
     }
 
     /**
-     * Triggers a potential bomb at the given position and processes any potential resulting flips.
+     * Triggers the bombs in a set of flips and adds every disc flipped by the explosions.
+     * A bomb flips the flippable opponent discs around it, and a flipped opponent bomb explodes in turn.
+     * Chains are resolved with a worklist of pending bombs and the precomputed neighbourhood masks of
+     * {@link BitBoards#NEIGHBOURS}, so each bomb is handled once and long chains don't go deep in the stack.
      *
-     * @param bomb          The position of the bomb.
-     * @param flips         The set of flips that need to be processed.
-     * @param processedBombs A set of processed bombs to avoid infinite recursion.
-     */
-    private void triggerBomb(Position bomb, Set<Position> flips, Set<Position> processedBombs) {
-        // If this bomb has already been processed or flipped, return immediately
-        if (processedBombs.contains(bomb) || flips.contains(bomb)) {
-            return; // Stop recursion if this bomb has already been triggered
+     * @param flips The set of flips that need to be processed. Explosion flips are added to it.
+     */
+    private void triggerBombs(PositionSet flips) {
+        long flipped = flips.bits();
+        long pending = 0; // Bombs that were flipped but haven't exploded yet
+        for (Position pos : flips) {
+            if (board[pos.row()][pos.col()] instanceof BombDisc) {
+                pending |= 1L << BitBoards.square(pos.row(), pos.col());
+            }
         }
 
-        // Add bomb to the flips set and processed bombs set
-        processedBombs.add(bomb);  // Mark as processed
-        flips.add(bomb);
-
-        // For each neighboring position of the bomb, check if it should trigger another bomb or flip discs.
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                if (dx == 0 && dy == 0) continue;  // Skip the bomb's own position.
-
-                int x = bomb.row() + dx;
-                int y = bomb.col() + dy;
-
-                if (isValidPosition(x, y)) {
-                    Position adj = new Position(x, y);
-                    Disc adjDisc = board[x][y];
-
-                    if (adjDisc != null && !(adjDisc instanceof UnflippableDisc)) {
-                        // Case 1: If adjDisc is NOT your disc AND it is a BombDisc
-                        if (!isOwnDisc(adjDisc) && adjDisc instanceof BombDisc && !processedBombs.contains(adj)) {
-                            triggerBomb(adj, flips, processedBombs);  // Recursively trigger the adjacent bomb
-                        }
-                        // Case 2: If adjDisc IS your disc AND it is a BombDisc
-                        else if (isOwnDisc(adjDisc) && adjDisc instanceof BombDisc) {
-                        }
-                        // Case 3: If adjDisc is NOT your disc AND it is NOT a BombDisc
-                        else if (!isOwnDisc(adjDisc) && !(adjDisc instanceof BombDisc)) {
-                            flips.add(adj);  // Add to flips list if it's a valid disc
-                        }
-                        // Case 4: If adjDisc IS your disc AND it is NOT a BombDisc
-                        else if (isOwnDisc(adjDisc) && !(adjDisc instanceof BombDisc)) {
-                        }
+        while (pending != 0) {
+            int bomb = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1;
+
+            // Only look at neighbours that aren't flipped yet, so a bomb can never be queued twice
+            for (long around = BitBoards.NEIGHBOURS[bomb] & ~flipped; around != 0; around &= around - 1) {
+                int square = Long.numberOfTrailingZeros(around);
+                Disc adjDisc = board[square / boardSize][square % boardSize];
+                if (adjDisc != null && !(adjDisc instanceof UnflippableDisc) && !isOwnDisc(adjDisc)) {
+                    flipped |= 1L << square;
+                    if (adjDisc instanceof BombDisc) {
+                        pending |= 1L << square; // A flipped opponent bomb explodes as well
                     }
                 }
             }
         }
+        flips.addAll(flipped);
+    }
+
+    /**
+     * Flips every disc of a mask of squares.
+     *
+     * @param flips The mask of the discs to flip.
+     */
+    private void flipDiscs(long flips) {
+        for (; flips != 0; flips &= flips - 1) {
+            int square = Long.numberOfTrailingZeros(flips);
+            flipDisc(square / boardSize, square % boardSize);
+        }
     }
 
     /**
@@ -460,16 +682,40 @@ public class GameLogic implements PlayableLogic {
      * @param a The position of the disc to be flipped.
      */
     private void flipDisc(Position a) {
-        Disc d1 = board[a.row()][a.col()];
+        flipDisc(a.row(), a.col());
+    }
+
+    /**
+     * Flips a disc at the given position.
+     * The disc is replaced by the shared disc of the same kind owned by the other player,
+     * so discs already on the board are never modified and flipping never allocates.
+     *
+     * @param row The row of the disc to be flipped.
+     * @param col The column of the disc to be flipped.
+     */
+    private void flipDisc(int row, int col) {
+        Disc d1 = board[row][col];
         if (d1 != null) {
-            if (d1.getOwner().equals(p1)) {
-                d1.setOwner(p2);
-            } else {
-                d1.setOwner(p1);
-            }
+            int oldOwner = sideOf(d1.getOwner());
+            int kind = BitBoards.kindOf(d1);
+            board[row][col] = sharedDiscs[1 - oldOwner][kind];
+            discCounts[oldOwner][kind]--;
+            discCounts[1 - oldOwner][kind]++;
+            int square = BitBoards.square(row, col);
+            boardHash ^= Zobrist.disc(square, oldOwner, kind) ^ Zobrist.disc(square, 1 - oldOwner, kind);
         }
     }
 
+    /**
+     * Returns the index of a player, 0 for the first player and 1 for the second.
+     *
+     * @param player The player to check.
+     * @return The index of the player.
+     */
+    private int sideOf(Player player) {
+        return player.isPlayerOne() ? 0 : 1;
+    }
+
     /**
      * Checks if the given disc is owned by the current player.
      *
@@ -477,7 +723,7 @@ public class GameLogic implements PlayableLogic {
      * @return true if the disc is owned by the current player, false otherwise.
      */
     private boolean isOwnDisc(Disc disc) {
-        return disc.getOwner().equals(currentTurn);
+        return disc.getOwner().isPlayerOne() == currentTurn.isPlayerOne();
     }
 
     /**
@@ -511,6 +757,11 @@ public class GameLogic implements PlayableLogic {
         this.p1 = player1;
         this.p2 = player2;
         this.currentTurn = player1;
+        this.movesCached = false;
+        sharedDiscs = new Disc[][]{
+                {new SimpleDisc(player1), new BombDisc(player1), new UnflippableDisc(player1)},
+                {new SimpleDisc(player2), new BombDisc(player2), new UnflippableDisc(player2)}
+        };
     }
 
     /**
@@ -541,16 +792,19 @@ public class GameLogic implements PlayableLogic {
         board = new Disc[boardSize][boardSize];
         gameFinished = false;
         moveHistory.clear();
+        searchDepth = 0;
         p1.number_of_unflippedable = 2;
         p2.number_of_unflippedable = 2;
         p1.number_of_bombs = 3;
         p2.number_of_bombs = 3;
 
         // Initialize the board with starting discs
-        board[3][3] = new SimpleDisc(p1);
-        board[3][4] = new SimpleDisc(p2);
-        board[4][3] = new SimpleDisc(p2);
-        board[4][4] = new SimpleDisc(p1);
+        discCounts = new int[2][3];
+        boardHash = 0;
+        placeDisc(3, 3, sharedDiscs[0][BitBoards.SIMPLE]);
+        placeDisc(3, 4, sharedDiscs[1][BitBoards.SIMPLE]);
+        placeDisc(4, 3, sharedDiscs[1][BitBoards.SIMPLE]);
+        placeDisc(4, 4, sharedDiscs[0][BitBoards.SIMPLE]);
         currentTurn = p1;
     }
 
@@ -561,11 +815,11 @@ public class GameLogic implements PlayableLogic {
     public void undoLastMove() {
         // Undo the last move using moveHistory
         if (moveHistory.isEmpty()) {
-            System.out.println("\tNo previous move available to undo.");
+            listener.nothingToUndo();
 
         } else {
             // Log the action of undoing the last move
-            System.out.println("Undoing last move:");
+            listener.undoStarted();
 
             // Retrieve the last move from the move history stack
             Move lastMove = moveHistory.pop();
@@ -584,23 +838,18 @@ public class GameLogic implements PlayableLogic {
             if (lastMove.disc() instanceof UnflippableDisc)
                 currentTurn.number_of_unflippedable++;
 
-            // Retrieve the type of the disc at the last move's position
-            String type = board[p4.row()][p4.col()].getType();
-
-            // Remove the disc from the board
-            board[p4.row()][p4.col()] = null;
+            // Remove the disc at the last move's position from the board
+            Disc removed = removeDisc(p4.row(), p4.col());
 
             // Log the removal of the disc and its position
-            System.out.println("\tUndo: removing " + type + " from (" + p4.row() + "," + p4.col() + ")");
+            listener.discRemoved(removed, p4.row(), p4.col());
 
             // Restore the flipped discs to their original state
             flipDiscs(lastMove);
 
             // Log the flipped discs that were restored during the undo process
-            printFlippedUndo(lastMove.getFlippedDiscs());
-
-            // Add a blank line for better log formatting
-            System.out.println();
+            publishFlipsUndo(lastMove.getFlippedDiscs());
+            listener.undoFinished();
         }
     }
 }
\ No newline at end of file
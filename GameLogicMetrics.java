@@ -0,0 +1,205 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the work done by every {@link GameLogic} of the running program: moves played, calls to getFlips, hits of
+ * the valid move cache, and the sizes of bomb cascades. The counters are {@link LongAdder}s and a {@link Histogram},
+ * so games played on many threads at once update them without contending, and they stay on all the time.
+ *
+ * There is a single instance, published through JMX as "reversi:type=GameLogic" (see {@link Metrics}).
+ */
+public final class GameLogicMetrics implements GameLogicMetricsMBean {
+
+    private static final GameLogicMetrics instance = new GameLogicMetrics();
+
+    static {
+        Metrics.register(instance, "type=GameLogic");
+    }
+
+    private final LongAdder movesApplied = new LongAdder();
+    private final LongAdder searchMovesApplied = new LongAdder();
+    private final LongAdder getFlipsCalls = new LongAdder();
+    private final LongAdder moveCacheHits = new LongAdder();
+    private final LongAdder moveCacheMisses = new LongAdder();
+    private final Histogram cascadeSizes = new Histogram();
+
+    /**
+     * Constructs the metrics, all at 0.
+     */
+    private GameLogicMetrics() {
+    }
+
+    /**
+     * Returns the metrics of every GameLogic, registering them with JMX on first use.
+     *
+     * @return The single instance.
+     */
+    public static GameLogicMetrics get() {
+        return instance;
+    }
+
+    /**
+     * Counts a move played with locate_disc.
+     */
+    void moveApplied() {
+        movesApplied.increment();
+    }
+
+    /**
+     * Counts a move played silently with makeMove.
+     */
+    void searchMoveApplied() {
+        searchMovesApplied.increment();
+    }
+
+    /**
+     * Counts a call to getFlips.
+     */
+    void getFlipsCalled() {
+        getFlipsCalls.increment();
+    }
+
+    /**
+     * Counts a request for the valid moves of a position.
+     *
+     * @param hit true if the moves were already computed.
+     */
+    void movesRequested(boolean hit) {
+        if (hit) moveCacheHits.increment();
+        else moveCacheMisses.increment();
+    }
+
+    /**
+     * Records the size of a bomb cascade set off by a move played with locate_disc. Bombs that flip nothing are not
+     * recorded.
+     *
+     * @param discs The number of discs flipped by the bombs, on top of the discs flipped along the lines.
+     */
+    void bombCascade(int discs) {
+        cascadeSizes.record(discs);
+    }
+
+    /**
+     * Returns the number of moves played with locate_disc.
+     *
+     * @return The number of moves.
+     */
+    @Override
+    public long getMovesApplied() {
+        return movesApplied.sum();
+    }
+
+    /**
+     * Returns the number of moves played silently with makeMove.
+     *
+     * @return The number of moves.
+     */
+    @Override
+    public long getSearchMovesApplied() {
+        return searchMovesApplied.sum();
+    }
+
+    /**
+     * Returns the number of calls to getFlips.
+     *
+     * @return The number of calls.
+     */
+    @Override
+    public long getGetFlipsCalls() {
+        return getFlipsCalls.sum();
+    }
+
+    /**
+     * Returns the number of requests for valid moves that found them already computed.
+     *
+     * @return The number of cache hits.
+     */
+    @Override
+    public long getMoveCacheHits() {
+        return moveCacheHits.sum();
+    }
+
+    /**
+     * Returns the number of requests for valid moves that had to compute them.
+     *
+     * @return The number of cache misses.
+     */
+    @Override
+    public long getMoveCacheMisses() {
+        return moveCacheMisses.sum();
+    }
+
+    /**
+     * Returns the share of requests for valid moves that found them already computed.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    @Override
+    public double getMoveCacheHitRate() {
+        long hits = getMoveCacheHits();
+        long requests = hits + getMoveCacheMisses();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Returns the number of moves played with locate_disc whose bombs flipped discs.
+     *
+     * @return The number of bomb cascades.
+     */
+    @Override
+    public long getBombCascades() {
+        return cascadeSizes.count();
+    }
+
+    /**
+     * Returns the average number of discs flipped by the bombs of a cascade.
+     *
+     * @return The mean cascade size.
+     */
+    @Override
+    public double getMeanCascadeSize() {
+        return cascadeSizes.mean();
+    }
+
+    /**
+     * Returns the median number of discs flipped by the bombs of a cascade.
+     *
+     * @return The median cascade size.
+     */
+    @Override
+    public long getCascadeSizeP50() {
+        return cascadeSizes.percentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile of the number of discs flipped by the bombs of a cascade.
+     *
+     * @return The cascade size at the 99th percentile.
+     */
+    @Override
+    public long getCascadeSizeP99() {
+        return cascadeSizes.percentile(99);
+    }
+
+    /**
+     * Returns the largest number of discs flipped by the bombs of a cascade.
+     *
+     * @return The largest cascade size.
+     */
+    @Override
+    public long getMaxCascadeSize() {
+        return cascadeSizes.max();
+    }
+
+    /**
+     * Sets every metric back to 0.
+     */
+    @Override
+    public void reset() {
+        movesApplied.reset();
+        searchMovesApplied.reset();
+        getFlipsCalls.reset();
+        moveCacheHits.reset();
+        moveCacheMisses.reset();
+        cascadeSizes.reset();
+    }
+}
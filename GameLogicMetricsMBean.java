@@ -0,0 +1,87 @@
+/**
+ * The JMX view of {@link GameLogicMetrics}: the work done by every GameLogic of the running program, together.
+ */
+public interface GameLogicMetricsMBean {
+
+    /**
+     * Returns the number of moves played with locate_disc.
+     *
+     * @return The number of moves.
+     */
+    long getMovesApplied();
+
+    /**
+     * Returns the number of moves played silently with makeMove, by searches and tools.
+     *
+     * @return The number of moves.
+     */
+    long getSearchMovesApplied();
+
+    /**
+     * Returns the number of calls to getFlips.
+     *
+     * @return The number of calls.
+     */
+    long getGetFlipsCalls();
+
+    /**
+     * Returns the number of times the valid moves of a position were asked for and already computed.
+     *
+     * @return The number of cache hits.
+     */
+    long getMoveCacheHits();
+
+    /**
+     * Returns the number of times the valid moves of a position had to be computed.
+     *
+     * @return The number of cache misses.
+     */
+    long getMoveCacheMisses();
+
+    /**
+     * Returns the share of requests for valid moves that found them already computed.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    double getMoveCacheHitRate();
+
+    /**
+     * Returns the number of moves played with locate_disc whose bombs flipped discs.
+     *
+     * @return The number of bomb cascades.
+     */
+    long getBombCascades();
+
+    /**
+     * Returns the average number of discs flipped by the bombs of a cascade.
+     *
+     * @return The mean cascade size.
+     */
+    double getMeanCascadeSize();
+
+    /**
+     * Returns the median number of discs flipped by the bombs of a cascade.
+     *
+     * @return The median cascade size.
+     */
+    long getCascadeSizeP50();
+
+    /**
+     * Returns the 99th percentile of the number of discs flipped by the bombs of a cascade.
+     *
+     * @return The cascade size at the 99th percentile.
+     */
+    long getCascadeSizeP99();
+
+    /**
+     * Returns the largest number of discs flipped by the bombs of a cascade.
+     *
+     * @return The largest cascade size.
+     */
+    long getMaxCascadeSize();
+
+    /**
+     * Sets every metric back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,216 @@
+import java.util.List;
+
+/**
+ * A finished (or abandoned) game in a compact form: the types of both players, the final disc count of each player,
+ * which player forfeited the game if one did, and the moves, one byte each. A move byte is the move encoded as in
+ * {@link SearchBoard}: the square (row * 8 + col) in the low 6 bits and the kind of the placed disc (BitBoards.SIMPLE,
+ * BitBoards.BOMB or BitBoards.UNFLIPPABLE) in the 2 high bits. Flipped discs are not stored, since replaying the moves
+ * flips them again.
+ *
+ * Records are written to and read from files by {@link GameRecordWriter} and {@link GameRecordReader}.
+ */
+public final class GameRecord {
+
+    /**
+     * The most moves a game can have: every empty square of the start position.
+     */
+    public static final int maxMoves = 60;
+
+    /**
+     * The game was played to its end, or abandoned without a forfeit.
+     */
+    public static final int noForfeit = 0;
+
+    /**
+     * The first player forfeited the game, by making an invalid move or failing to make one.
+     */
+    public static final int firstForfeit = 1;
+
+    /**
+     * The second player forfeited the game.
+     */
+    public static final int secondForfeit = 2;
+
+    private final String firstPlayer;
+    private final String secondPlayer;
+    private final int firstDiscs;
+    private final int secondDiscs;
+    private final int forfeit;
+    private final byte[] moves;
+
+    /**
+     * Constructs a record.
+     *
+     * @param firstPlayer  The type of the player who moved first, for example a registered AI name.
+     * @param secondPlayer The type of the player who moved second.
+     * @param firstDiscs   The number of discs of the first player at the end of the game.
+     * @param secondDiscs  The number of discs of the second player at the end of the game.
+     * @param forfeit      {@link #noForfeit}, {@link #firstForfeit} or {@link #secondForfeit}.
+     * @param moves        The encoded moves, in the order they were played. The array is not copied.
+     * @throws IllegalArgumentException if a disc count, the forfeit or the number of moves is out of range.
+     */
+    public GameRecord(String firstPlayer, String secondPlayer, int firstDiscs, int secondDiscs, int forfeit,
+                      byte[] moves) {
+        if (firstDiscs < 0 || secondDiscs < 0 || firstDiscs + secondDiscs > 64) {
+            throw new IllegalArgumentException("Invalid disc counts: " + firstDiscs + ", " + secondDiscs);
+        }
+        if (forfeit < noForfeit || forfeit > secondForfeit) {
+            throw new IllegalArgumentException("Invalid forfeit: " + forfeit);
+        }
+        if (moves.length > maxMoves) {
+            throw new IllegalArgumentException("Too many moves: " + moves.length);
+        }
+        this.firstPlayer = firstPlayer;
+        this.secondPlayer = secondPlayer;
+        this.firstDiscs = firstDiscs;
+        this.secondDiscs = secondDiscs;
+        this.forfeit = forfeit;
+        this.moves = moves;
+    }
+
+    /**
+     * Creates a record of a game from its move history and current disc counts.
+     *
+     * @param game         The game. It is only read.
+     * @param firstPlayer  The type of the player who moved first.
+     * @param secondPlayer The type of the player who moved second.
+     * @param forfeit      {@link #noForfeit}, or which player forfeited the game.
+     * @return The record.
+     */
+    public static GameRecord of(GameLogic game, String firstPlayer, String secondPlayer, int forfeit) {
+        List<Move> history = game.getMoveHistory();
+        byte[] moves = new byte[history.size()];
+        for (int i = 0; i < moves.length; i++) moves[i] = (byte) encode(history.get(i));
+        return new GameRecord(firstPlayer, secondPlayer, game.countPlayerDiscs(game.getFirstPlayer()),
+                game.countPlayerDiscs(game.getSecondPlayer()), forfeit, moves);
+    }
+
+    /**
+     * Encodes a move into the int form stored by a record.
+     *
+     * @param move The move.
+     * @return The move encoded as in {@link SearchBoard}, between 0 and 255.
+     */
+    public static int encode(Move move) {
+        Position position = move.position();
+        return SearchBoard.move(BitBoards.square(position.row(), position.col()), BitBoards.kindOf(move.disc()));
+    }
+
+    /**
+     * Replays the moves on a new game, with human players that do not play by themselves and without game events.
+     *
+     * @return The game after the last move.
+     * @throws IllegalStateException if a move is not valid.
+     */
+    public GameLogic replay() {
+        GameLogic game = new GameLogic();
+        game.setGameEventListener(GameEventListener.NONE);
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        replay(game);
+        return game;
+    }
+
+    /**
+     * Resets a game and replays the moves on it through {@link GameLogic#locate_disc(Position, Disc)}, so that a
+     * single game can replay many records.
+     *
+     * @param game The game to replay on. Its players and listener are kept.
+     * @throws IllegalStateException if a move is not valid.
+     */
+    public void replay(GameLogic game) {
+        replay(game, moves.length);
+    }
+
+    /**
+     * Resets a game and replays the first moves on it, to get a position from the middle of the game.
+     *
+     * @param game  The game to replay on. Its players and listener are kept.
+     * @param plies The number of moves to replay, at most {@link #moveCount()}.
+     * @throws IllegalStateException if a move is not valid.
+     */
+    public void replay(GameLogic game, int plies) {
+        game.reset();
+        for (int i = 0; i < plies; i++) {
+            Player player = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+            Move move = SearchBoard.toMove(move(i), player);
+            if (!game.locate_disc(move.position(), move.disc())) {
+                throw new IllegalStateException("Invalid move " + i + " of " + firstPlayer + " vs " + secondPlayer
+                        + ": " + move.position() + " " + move.disc().getType());
+            }
+        }
+    }
+
+    /**
+     * Returns the type of the player who moved first.
+     *
+     * @return The player type.
+     */
+    public String firstPlayer() {
+        return firstPlayer;
+    }
+
+    /**
+     * Returns the type of the player who moved second.
+     *
+     * @return The player type.
+     */
+    public String secondPlayer() {
+        return secondPlayer;
+    }
+
+    /**
+     * Returns the number of discs of the first player at the end of the game.
+     *
+     * @return The disc count.
+     */
+    public int firstDiscs() {
+        return firstDiscs;
+    }
+
+    /**
+     * Returns the number of discs of the second player at the end of the game.
+     *
+     * @return The disc count.
+     */
+    public int secondDiscs() {
+        return secondDiscs;
+    }
+
+    /**
+     * Returns which player forfeited the game. The disc counts of a forfeited game are those of the position it was
+     * forfeited in, not the result.
+     *
+     * @return {@link #noForfeit}, {@link #firstForfeit} or {@link #secondForfeit}.
+     */
+    public int forfeit() {
+        return forfeit;
+    }
+
+    /**
+     * Returns the number of moves of the game.
+     *
+     * @return The number of moves.
+     */
+    public int moveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Returns one move of the game.
+     *
+     * @param i The index of the move, 0 for the first move.
+     * @return The move encoded as in {@link SearchBoard}.
+     */
+    public int move(int i) {
+        return moves[i] & 0xFF;
+    }
+
+    /**
+     * Returns the encoded moves, one byte each. The array is shared with the record and must not be changed.
+     *
+     * @return The moves.
+     */
+    byte[] moves() {
+        return moves;
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the {@link GameRecord}s of a file written by {@link GameRecordWriter}, one at a time.
+ * The file is read through a fixed buffer that is refilled from the file channel as records are taken out of it, so
+ * files of any size are read in constant memory. Each record can then be replayed on a game with
+ * {@link GameRecord#replay(GameLogic)}.
+ *
+ * Since iterators cannot throw checked exceptions, read errors are thrown as UncheckedIOException.
+ * A reader is not thread-safe.
+ *
+ * Usage: java GameRecordReader file
+ * Replays every game of the file, checks that the final disc counts match the records, and prints a summary that
+ * includes the number of forfeited games.
+ */
+public class GameRecordReader implements Iterator<GameRecord>, AutoCloseable {
+
+    private static final int bufferSize = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+
+    /**
+     * Opens a game record file and checks its header.
+     *
+     * @param file The file.
+     * @throws IOException if the file cannot be read, or is not a game record file of a known version.
+     */
+    public GameRecordReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.limit(0); // Nothing read yet
+        try {
+            if (!fill(GameRecordWriter.headerSize) || buffer.getInt() != GameRecordWriter.magic) {
+                throw new IOException("Not a game record file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != GameRecordWriter.version) {
+                throw new IOException("Unsupported game record version " + version + ": " + file);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks if the file has another record.
+     *
+     * @return true if there is another record to read.
+     * @throws UncheckedIOException if the file cannot be read.
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            return fill(1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the next record of the file.
+     *
+     * @return The record.
+     * @throws NoSuchElementException if there are no more records.
+     * @throws UncheckedIOException   if the file cannot be read or ends in the middle of a record.
+     */
+    @Override
+    public GameRecord next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        try {
+            String firstPlayer = readType();
+            String secondPlayer = readType();
+            require(4);
+            int firstDiscs = buffer.get() & 0xFF;
+            int secondDiscs = buffer.get() & 0xFF;
+            int forfeit = buffer.get() & 0xFF;
+            byte[] moves = new byte[buffer.get() & 0xFF];
+            require(moves.length);
+            buffer.get(moves);
+            return new GameRecord(firstPlayer, secondPlayer, firstDiscs, secondDiscs, forfeit, moves);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads a player type: a length byte followed by that many UTF-8 bytes.
+     *
+     * @return The player type.
+     * @throws IOException if the file cannot be read or ends too soon.
+     */
+    private String readType() throws IOException {
+        require(1);
+        byte[] bytes = new byte[buffer.get() & 0xFF];
+        require(bytes.length);
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes sure the buffer holds a number of bytes that belong to the current record.
+     *
+     * @param bytes The number of bytes.
+     * @throws IOException if the file cannot be read, or ends before that many bytes.
+     */
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes)) throw new EOFException("Truncated game record");
+    }
+
+    /**
+     * Refills the buffer from the file, if needed, until it holds a number of unread bytes.
+     *
+     * @param bytes The number of bytes, at most the size of the buffer.
+     * @return true if the buffer holds that many bytes, false if the file ended before.
+     * @throws IOException if the file cannot be read.
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return true;
+        buffer.compact(); // Keep the unread bytes, and read after them
+        while (buffer.position() < bytes && channel.read(buffer) >= 0) {
+            // Read until there is enough or the file ends
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+
+    /**
+     * Replays every game of a file and prints a summary.
+     *
+     * @param args The file.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java GameRecordReader file");
+            return;
+        }
+        GameLogic game = new GameLogic();
+        game.setGameEventListener(GameEventListener.NONE);
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+
+        long start = System.nanoTime();
+        long games = 0;
+        long moves = 0;
+        long mismatches = 0;
+        long forfeits = 0;
+        try (GameRecordReader reader = new GameRecordReader(Paths.get(args[0]))) {
+            while (reader.hasNext()) {
+                GameRecord record = reader.next();
+                record.replay(game);
+                if (game.countPlayerDiscs(game.getFirstPlayer()) != record.firstDiscs()
+                        || game.countPlayerDiscs(game.getSecondPlayer()) != record.secondDiscs()) {
+                    mismatches++;
+                }
+                if (record.forfeit() != GameRecord.noForfeit) forfeits++;
+                games++;
+                moves += record.moveCount();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Replayed %d games (%d moves, %d forfeits) in %.1f s: %.0f games per second, "
+                + "%d result mismatches%n", games, moves, forfeits, seconds, games / seconds, mismatches);
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes {@link GameRecord}s to a file, one after another. The records go into a direct buffer, which is written to
+ * the file channel whenever it fills up, so writing millions of games takes a few large writes.
+ *
+ * File layout (big-endian):
+ * - A header of 8 bytes: the magic number and the format version.
+ * - The records, each made of:
+ *   the type of the first player and of the second player, each as a length byte followed by that many UTF-8 bytes,
+ *   the final disc count of the first and of the second player (a byte each), the player who forfeited the game
+ *   (a byte, see {@link GameRecord#forfeit()}), the number of moves (a byte), and the moves, a byte each
+ *   (see {@link GameRecord}).
+ * Version 1 files, from before the forfeit byte, are not read anymore.
+ * A typical game takes under 90 bytes. The file holds no index, so it is read from the start with
+ * {@link GameRecordReader}.
+ *
+ * A writer is not thread-safe.
+ */
+public class GameRecordWriter implements AutoCloseable {
+
+    /**
+     * The first int of every game record file, "RVGR" in ASCII.
+     */
+    public static final int magic = 0x52564752;
+
+    /**
+     * The version of the file layout described above.
+     */
+    public static final int version = 2;
+
+    /**
+     * The size of the file header, in bytes.
+     */
+    public static final int headerSize = 8;
+
+    /**
+     * The longest player type that can be stored, in UTF-8 bytes.
+     */
+    public static final int maxTypeLength = 255;
+
+    /**
+     * The largest size of one record, in bytes.
+     */
+    public static final int maxRecordSize = 2 * (1 + maxTypeLength) + 4 + GameRecord.maxMoves;
+
+    private static final int bufferSize = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+    private long count;
+
+    /**
+     * Creates a game record file, replacing it if it exists, and writes its header.
+     *
+     * @param file The file.
+     * @throws IOException if the file cannot be created.
+     */
+    public GameRecordWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(magic);
+        buffer.putInt(version);
+    }
+
+    /**
+     * Adds a record to the file.
+     *
+     * @param record The record.
+     * @throws IOException              if the buffer cannot be written to the file.
+     * @throws IllegalArgumentException if a player type is too long.
+     */
+    public void write(GameRecord record) throws IOException {
+        byte[] first = typeBytes(record.firstPlayer());
+        byte[] second = typeBytes(record.secondPlayer());
+        if (buffer.remaining() < maxRecordSize) flush();
+
+        buffer.put((byte) first.length).put(first);
+        buffer.put((byte) second.length).put(second);
+        buffer.put((byte) record.firstDiscs());
+        buffer.put((byte) record.secondDiscs());
+        buffer.put((byte) record.forfeit());
+        buffer.put((byte) record.moveCount());
+        buffer.put(record.moves());
+        count++;
+    }
+
+    /**
+     * Adds a record of a game to the file, see {@link GameRecord#of(GameLogic, String, String, int)}.
+     *
+     * @param game         The game. It is only read.
+     * @param firstPlayer  The type of the player who moved first.
+     * @param secondPlayer The type of the player who moved second.
+     * @param forfeit      {@link GameRecord#noForfeit}, or which player forfeited the game.
+     * @throws IOException if the buffer cannot be written to the file.
+     */
+    public void write(GameLogic game, String firstPlayer, String secondPlayer, int forfeit) throws IOException {
+        write(GameRecord.of(game, firstPlayer, secondPlayer, forfeit));
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return The number of records.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered records and closes the file.
+     *
+     * @throws IOException if the file cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the UTF-8 bytes of a player type.
+     *
+     * @param type The player type.
+     * @return The bytes.
+     * @throws IllegalArgumentException if the type is too long.
+     */
+    private static byte[] typeBytes(String type) {
+        byte[] bytes = type.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxTypeLength) {
+            throw new IllegalArgumentException("Player type too long: " + type);
+        }
+        return bytes;
+    }
+}
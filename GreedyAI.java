@@ -1,6 +1,3 @@
-import java.util.Comparator;
-import java.util.List;
-
 /**
  * A greedy AI player that makes a move based on the maximum number of flips it can achieve.
  * This class extends the AIPlayer class and implements the makeMove method to select the
@@ -18,6 +15,8 @@ public class GreedyAI extends AIPlayer {
         super(isPlayerOne);
     }
 
+    private final MoveList moves = new MoveList(); // Reused between turns
+
     /**
      * Makes the best move for the greedy AI player.
      * This method evaluates all valid moves and selects the one that maximizes the number of
@@ -34,20 +33,28 @@ public class GreedyAI extends AIPlayer {
      */
     @Override
     public Move makeMove(PlayableLogic gameStatus) {
-        List<Position> moves = gameStatus.ValidMoves();
+        long start = System.nanoTime();
+        int count = gameStatus.generateMoves(moves);
+        if (count == 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
 
-        // Find the maximum position using a comparator
-        Position maxPos = moves.stream()
-                .max(Comparator.comparingInt(gameStatus::countFlips)
-                        .thenComparingInt(Position::col) // Rightmost position (higher X)
-                        .thenComparingInt(Position::row) // Bottommost position (higher Y))
-                )
-                .orElseThrow(() -> new IllegalStateException("No valid moves available"));
+        // Find the move with the most flips
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            int diff = moves.flipCount(i) - moves.flipCount(best);
+            if (diff == 0) diff = moves.col(i) - moves.col(best); // Rightmost position (higher X)
+            if (diff == 0) diff = moves.row(i) - moves.row(best); // Bottommost position (higher Y)
+            if (diff > 0) best = i;
+        }
+        Position maxPos = moves.position(best);
 
         // Create the disc with appropriate player
         Disc simple = new SimpleDisc(isPlayerOne ? gameStatus.getFirstPlayer() : gameStatus.getSecondPlayer());
 
         // Return the move
-        return new Move(maxPos, simple);
+        Move move = new Move(maxPos, simple);
+        metrics.moveMade(System.nanoTime() - start, 0);
+        return move;
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds or cascade sizes, that any number of threads
+ * can record into at once.
+ *
+ * Values below 16 each have a bucket of their own. Larger values share buckets: every power of two is split into 16
+ * buckets, so a percentile is never off by more than 1/16 of its value. Every bucket is a {@link LongAdder}, which
+ * spreads updates from different threads over separate cells, so recording stays cheap enough to leave on all the
+ * time.
+ */
+public final class Histogram {
+
+    private static final int subBucketBits = 4;
+    private static final int subBuckets = 1 << subBucketBits;
+    private static final int maxExponent = 46; // Values from 2^47 up (over a day in nanoseconds) share an extra bucket
+    private static final int bucketCount = (maxExponent - subBucketBits + 2) * subBuckets + 1;
+
+    private final LongAdder[] buckets = new LongAdder[bucketCount];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public Histogram() {
+        for (int i = 0; i < bucketCount; i++) buckets[i] = new LongAdder();
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value The value. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        buckets[bucketOf(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return The sum.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return The largest value, or 0 if none was recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the average of the recorded values.
+     *
+     * @return The mean, or 0 if none was recorded.
+     */
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum() / n;
+    }
+
+    /**
+     * Returns a percentile of the recorded values: the smallest value that at least that share of the values is
+     * not above. The result is the top of the bucket the percentile falls in, capped by the largest value.
+     * Values recorded while this runs may or may not be counted.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The value at the percentile, or 0 if none was recorded.
+     */
+    public long percentile(double percentile) {
+        long[] counts = new long[bucketCount];
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+        long seen = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueOf(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Forgets every recorded value. Values recorded while this runs may or may not be kept.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) bucket.reset();
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Returns the bucket of a value.
+     *
+     * @param value The value, not negative.
+     * @return The index of its bucket.
+     */
+    private static int bucketOf(long value) {
+        if (value < subBuckets) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // At least subBucketBits
+        if (exponent > maxExponent) return bucketCount - 1;
+        int sub = (int) (value >>> (exponent - subBucketBits)) & (subBuckets - 1);
+        return (exponent - subBucketBits + 1) * subBuckets + sub;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The largest value of the bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < subBuckets) return bucket;
+        if (bucket == bucketCount - 1) return Long.MAX_VALUE;
+        int exponent = bucket / subBuckets + subBucketBits - 1;
+        int sub = bucket % subBuckets;
+        long width = 1L << (exponent - subBucketBits);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A transposition table that any number of search threads can read and write at the same time without locks.
+ * Like {@link PackedTranspositionTable}, it is a fixed-size pair of long arrays with buckets of a depth-preferred
+ * slot and an always-replace slot, sized from a memory ceiling in megabytes.
+ *
+ * Slots are written without any synchronization, so two threads may write the same slot at once, and a reader may
+ * see the hash of one write with the result of another. To catch this, each slot stores the hash XOR-ed with its
+ * result instead of the plain hash. A reader XORs the two values back: a slot whose two halves come from different
+ * writes does not give back the hash that was looked up, and is treated as empty. A bad result is therefore never
+ * trusted, while the threads never wait for each other.
+ */
+public class LocklessTranspositionTable implements TranspositionTable {
+
+    private static final int bytesPerBucket = 4 * Long.BYTES; // Two slots of a checked hash and a result
+    private static final long resultMask = (1L << 56) - 1;    // The packed result, below the age of the slot
+    private static final int ageShift = 56;
+
+    private final long[] checks;  // The hash XOR the result of every slot
+    private final long[] results;
+    private final int bucketMask;
+    private volatile long age;    // Counts searches, stored in the top bits of every result
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Constructs a table using at most the given amount of memory.
+     *
+     * @param megabytes The memory ceiling, in megabytes. The table uses the largest power of two number of buckets
+     *                  that fits, and at least one bucket.
+     * @throws IllegalArgumentException if the ceiling is not positive.
+     */
+    public LocklessTranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Memory ceiling must be at least 1 MB: " + megabytes);
+        }
+        long buckets = Long.highestOneBit(megabytes * (1L << 20) / bytesPerBucket);
+        buckets = Math.min(buckets, 1 << 29); // Two slots per bucket must fit in a Java array
+        checks = new long[(int) buckets * 2];
+        results = new long[(int) buckets * 2];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Looks up the result stored for a position, in both slots of its bucket.
+     * Slots torn by concurrent writes fail the XOR check and are ignored.
+     *
+     * @param hash The hash of the position.
+     * @return The packed result, or 0 if there is none.
+     */
+    @Override
+    public long probe(long hash) {
+        probes.increment();
+        int slot = slotOf(hash);
+        for (int i = slot; i < slot + 2; i++) {
+            // Read each value once, so the check and the returned result are the same values
+            long result = results[i];
+            if (result != 0 && (checks[i] ^ result) == hash) {
+                hits.increment();
+                return result & resultMask;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of a search in the depth-preferred slot if it is at least as deep as the result there, or if
+     * that result is from an older search, and in the always-replace slot otherwise.
+     * When the depth-preferred slot is being written by another thread, this choice may be made on a torn value; the
+     * worst outcome is a result stored in the other slot or overwritten, which the table can afford.
+     *
+     * @param hash  The hash of the position.
+     * @param depth The depth the position was searched to.
+     * @param bound EXACT, LOWER or UPPER.
+     * @param score The score of the position.
+     * @param move  The best move found, or -1 if there is none.
+     */
+    @Override
+    public void store(long hash, int depth, int bound, int score, int move) {
+        long currentAge = age;
+        long result = TranspositionTable.pack(depth, bound, score, move) | currentAge << ageShift;
+        int slot = slotOf(hash);
+        long current = results[slot];
+        if (current == 0 || (checks[slot] ^ current) == hash || current >>> ageShift != currentAge
+                || depth >= TranspositionTable.depth(current & resultMask)) {
+            checks[slot] = hash ^ result;
+            results[slot] = result;
+        } else {
+            checks[slot + 1] = hash ^ result;
+            results[slot + 1] = result;
+        }
+    }
+
+    /**
+     * Returns the first slot of the bucket of a hash.
+     *
+     * @param hash The hash of a position.
+     * @return The index of the depth-preferred slot.
+     */
+    private int slotOf(long hash) {
+        return ((int) (hash >>> 32) & bucketMask) << 1;
+    }
+
+    /**
+     * Marks the results stored so far as old, so that the depth-preferred slots accept new results again.
+     * Should be called before the threads start a new search.
+     */
+    @Override
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Removes every result from the table. Must not be called while threads are using the table.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(checks, 0);
+        Arrays.fill(results, 0);
+    }
+
+    /**
+     * Returns the number of lookups since the table was created or its statistics were reset, over all threads.
+     *
+     * @return The number of calls to probe.
+     */
+    @Override
+    public long probes() {
+        return probes.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found a result, over all threads.
+     *
+     * @return The number of successful calls to probe.
+     */
+    @Override
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Sets the lookup statistics back to 0.
+     */
+    @Override
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+    }
+
+    /**
+     * Returns the number of results the table can hold.
+     *
+     * @return The number of slots.
+     */
+    public int capacity() {
+        return results.length;
+    }
+}
@@ -19,8 +19,13 @@ public class Main {
             // Manually register all AI player subclasses
             AIPlayer.registerAllAIPlayers();
 
-            // Create game logic
-            PlayableLogic gameLogic = new GameLogic();
+            // Create game logic, reporting the moves to the console from a background thread
+            GameLogic logic = new GameLogic();
+            AsyncGameEventListener events = new AsyncGameEventListener(new ConsoleGameEventListener());
+            logic.setGameEventListener(events);
+            // Closing the window exits the JVM, so print the queued events before the daemon writer thread dies
+            Runtime.getRuntime().addShutdownHook(new Thread(events::close));
+            PlayableLogic gameLogic = logic;
 
             // Create and show the game GUI
             GUI_for_chess_like_games gui = new GUI_for_chess_like_games(gameLogic, "Reversi Game");
@@ -0,0 +1,408 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * An AI player based on Monte Carlo Tree Search (UCT).
+ * Instead of scoring positions with fixed rules, the AI plays many fast random games (playouts) from the current
+ * position and prefers the moves that won most often. This judges bomb cascades by their actual outcomes, which
+ * static scoring rules tend to get wrong.
+ *
+ * How it works:
+ * - A tree of moves is grown from the current position. Every node counts its visits and the results of the playouts
+ *   that went through it, from the point of view of the player who made its move.
+ * - Each playout walks down the tree, choosing the child with the best UCT value (average result plus a bonus for
+ *   rarely visited children), adds a level to the tree, plays the game to its end with a fast policy, and reports the
+ *   result to every node on its path.
+ * - Several threads grow the same tree at once (tree parallelism). A thread counts its visit as soon as it enters
+ *   a node and only adds the result later ("virtual loss"), so the other threads are steered to other branches.
+ * - Playouts run on {@link SearchBoard} copies, never on the live game. The chosen move is the most visited one.
+ *
+ * In the opening, the AI plays the move of its {@link OpeningBook} without any playouts, as long as the position is
+ * in the book.
+ *
+ * When few empty squares are left, the AI first tries to solve the rest of the game exactly with an
+ * {@link EndgameSolver}, using up to half of its time budget, since playouts can only estimate what the solver proves.
+ *
+ * The number of playouts per second of the last move is available through {@link #getLastPlayoutsPerSecond()}.
+ */
+public class MctsAI extends AIPlayer {
+
+    /**
+     * The policy used to choose moves during playouts.
+     */
+    public enum Playout {
+        /**
+         * Every legal move is equally likely, like RandomAI.
+         */
+        RANDOM,
+        /**
+         * Mostly the move that flips the most discs, like GreedyAI, and sometimes a random one.
+         */
+        GREEDY
+    }
+
+    private static final long defaultTimeBudget = 500; // Milliseconds per move
+    private static final double exploration = 1.4;     // Weight of the UCT exploration bonus
+    private static final int greedyChance = 3;         // Out of 4, how often the greedy playout takes the best move
+
+    private long timeBudget = defaultTimeBudget;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Playout playout = Playout.GREEDY;
+    private ForkJoinPool pool; // Created on the first move searched with more than one thread
+    private final EndgameSolver solver = new EndgameSolver();
+    private int endgameEmpties = EndgameSolver.defaultEmpties;
+    private OpeningBook book = OpeningBook.getDefault();
+
+    private long lastPlayouts;
+    private double lastPlayoutsPerSecond;
+
+    /**
+     * Constructs a new MctsAI player with the default time budget, one thread per available processor and greedy
+     * playouts.
+     *
+     * @param isPlayerOne true if this is the first player, false for second player.
+     */
+    public MctsAI(boolean isPlayerOne) {
+        super(isPlayerOne);
+    }
+
+    /**
+     * Sets the time the AI may think about each move.
+     *
+     * @param timeBudget The time budget in milliseconds.
+     * @throws IllegalArgumentException if the budget is negative.
+     */
+    public void setTimeBudget(long timeBudget) {
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudget);
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Sets the number of threads that run playouts.
+     *
+     * @param threads The number of threads, 1 to run playouts on the thread calling makeMove.
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        if (pool != null && pool.getParallelism() != threads) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Shuts down the thread pool that runs the playouts, if it was started.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Sets the policy used to choose moves during playouts.
+     *
+     * @param playout The playout policy.
+     */
+    public void setPlayout(Playout playout) {
+        this.playout = playout;
+    }
+
+    /**
+     * Sets the number of empty squares at or below which the AI tries to solve the game exactly.
+     *
+     * @param endgameEmpties The number of empty squares, 0 to never use the solver.
+     */
+    public void setEndgameEmpties(int endgameEmpties) {
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    /**
+     * Sets the opening book the AI plays from before running playouts.
+     *
+     * @param book The opening book, or {@link OpeningBook#EMPTY} to always run playouts.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Returns the number of playouts run for the last move, over all threads.
+     * It is 0 when the move was taken from the opening book or found by the endgame solver.
+     *
+     * @return The playout count of the last move.
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Returns the throughput of the last move.
+     *
+     * @return The number of playouts per second run for the last move, over all threads.
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    /**
+     * Makes a move by running playouts until the time budget runs out, and picking the most visited move.
+     *
+     * @param gameStatus The current game state.
+     * @return The chosen move, with a disc of the chosen kind.
+     * @throws IllegalStateException if no valid moves are available.
+     */
+    @Override
+    public Move makeMove(PlayableLogic gameStatus) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget * 1_000_000;
+        SearchBoard rootBoard = new SearchBoard();
+        rootBoard.load(gameStatus);
+
+        // In the opening, play the book move. The legality check guards against hash collisions
+        int bookMove = book.bestMove(rootBoard.hash());
+        if (bookMove >= 0 && rootBoard.isLegal(bookMove)) {
+            lastPlayouts = 0;
+            lastPlayoutsPerSecond = 0;
+            metrics.bookMoveMade(System.nanoTime() - start);
+            return SearchBoard.toMove(bookMove, isPlayerOne ? gameStatus.getFirstPlayer() : gameStatus.getSecondPlayer());
+        }
+
+        // Near the end of the game, play a proven move if the solver finds one in time
+        if (Long.bitCount(rootBoard.empty()) <= endgameEmpties) {
+            int move = solver.provenMove(rootBoard, start + timeBudget * 500_000);
+            if (move >= 0) {
+                lastPlayouts = 0;
+                lastPlayoutsPerSecond = 0;
+                metrics.moveMade(System.nanoTime() - start, solver.nodes());
+                return SearchBoard.toMove(move, isPlayerOne ? gameStatus.getFirstPlayer() : gameStatus.getSecondPlayer());
+            }
+        }
+        Node root = new Node(-1);
+        root.expand(rootBoard);
+        if (root.children.length == 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
+
+        List<Worker> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) workers.add(new Worker(rootBoard, root, deadline));
+        if (threads == 1) {
+            workers.get(0).call();
+        } else {
+            if (pool == null) pool = new ForkJoinPool(threads);
+            pool.invokeAll(workers);
+        }
+        long playouts = 0;
+        for (Worker worker : workers) playouts += worker.playouts;
+        lastPlayouts = playouts;
+        lastPlayoutsPerSecond = playouts * 1e9 / Math.max(1, System.nanoTime() - start);
+
+        // The most visited move is the one the search trusts the most
+        Node best = root.children[0];
+        for (Node child : root.children) {
+            if (child.visits > best.visits) best = child;
+        }
+        metrics.moveMade(System.nanoTime() - start, playouts);
+        return SearchBoard.toMove(best.move, isPlayerOne ? gameStatus.getFirstPlayer() : gameStatus.getSecondPlayer());
+    }
+
+    /**
+     * A node of the search tree. Its counters are updated atomically, so several workers can share it.
+     */
+    private static final class Node {
+        private static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        private static final AtomicLongFieldUpdater<Node> RESULTS =
+                AtomicLongFieldUpdater.newUpdater(Node.class, "results");
+
+        private final int move;         // The move leading to this node, encoded as in SearchBoard
+        private volatile Node[] children; // null until the node is expanded, empty when the game is over
+        private volatile int visits;
+        private volatile long results;  // 2 per win and 1 per draw, for the player who made the move
+
+        /**
+         * Constructs a node that has not been visited yet.
+         *
+         * @param move The move leading to this node.
+         */
+        Node(int move) {
+            this.move = move;
+        }
+
+        /**
+         * Creates the children of this node, one per move of the given position, unless another worker already did.
+         *
+         * @param board The position of this node.
+         */
+        void expand(SearchBoard board) {
+            if (children != null) return;
+            synchronized (this) {
+                if (children != null) return;
+                int[] moves = new int[SearchBoard.maxMoves];
+                int count = board.generateMoves(board.legalMoves(), moves);
+                Node[] created = new Node[count];
+                for (int i = 0; i < count; i++) created[i] = new Node(moves[i]);
+                children = created;
+            }
+        }
+
+        /**
+         * Picks the child with the best UCT value. Children that were never visited come first.
+         *
+         * @return The selected child.
+         */
+        Node select() {
+            Node[] nodes = children;
+            double logVisits = Math.log(Math.max(1, visits));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : nodes) {
+                int n = child.visits;
+                if (n == 0) return child;
+                double value = child.results / (2.0 * n) + exploration * Math.sqrt(logVisits / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * A worker that runs playouts on its own copy of the root position until the deadline.
+     */
+    private final class Worker implements Callable<Void> {
+        private final SearchBoard rootBoard;
+        private final Node root;
+        private final long deadline;
+        private final SearchBoard board = new SearchBoard();
+        private final Node[] path = new Node[SearchBoard.maxMoves];
+        private final boolean[] movedFirst = new boolean[SearchBoard.maxMoves]; // Who made the move of each path node
+        private final int[] moves = new int[SearchBoard.maxMoves];
+        private long playouts;
+
+        /**
+         * Constructs a worker.
+         *
+         * @param rootBoard The root position, which is only copied.
+         * @param root      The root of the shared tree.
+         * @param deadline  The System.nanoTime() value at which the worker stops.
+         */
+        Worker(SearchBoard rootBoard, Node root, long deadline) {
+            this.rootBoard = rootBoard;
+            this.root = root;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Runs playouts until the deadline. At least one playout is always run.
+         *
+         * @return Nothing; the number of playouts is kept by the worker.
+         */
+        @Override
+        public Void call() {
+            do {
+                playOnce();
+                playouts++;
+            } while (System.nanoTime() < deadline);
+            return null;
+        }
+
+        /**
+         * Runs one playout: selection down the tree, expansion of one level, a fast game to the end,
+         * and the update of every node on the path.
+         */
+        private void playOnce() {
+            board.copyFrom(rootBoard);
+            Node.VISITS.incrementAndGet(root);
+            int length = 0;
+            Node node = root;
+
+            // Walk down the tree, counting each visit right away so that other workers spread out
+            while (node.children != null && node.children.length > 0) {
+                Node child = node.select();
+                Node.VISITS.incrementAndGet(child);
+                movedFirst[length] = board.isFirstPlayerTurn();
+                path[length++] = child;
+                board.makeMove(child.move);
+                node = child;
+                if (child.visits == 1) break; // A new node is only expanded on its second visit
+            }
+            if (node.children == null && node.visits > 1) {
+                node.expand(board);
+                if (node.children.length > 0) {
+                    Node child = node.select();
+                    Node.VISITS.incrementAndGet(child);
+                    movedFirst[length] = board.isFirstPlayerTurn();
+                    path[length++] = child;
+                    board.makeMove(child.move);
+                }
+            }
+
+            // Play the game to its end and score it for the first player: 2 for a win, 1 for a draw, 0 for a loss
+            rollout();
+            int difference = board.discDifference();
+            if (!board.isFirstPlayerTurn()) difference = -difference;
+            int firstPlayerResult = difference > 0 ? 2 : difference == 0 ? 1 : 0;
+            for (int i = 0; i < length; i++) {
+                Node.RESULTS.addAndGet(path[i], movedFirst[i] ? firstPlayerResult : 2 - firstPlayerResult);
+            }
+        }
+
+        /**
+         * Plays moves with the playout policy until the player to move has no moves.
+         * Special discs are used like RandomAI does: each available kind of disc is equally likely.
+         */
+        private void rollout() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (long legal = board.legalMoves(); legal != 0; legal = board.legalMoves()) {
+                int square;
+                long flips;
+                if (playout == Playout.GREEDY && random.nextInt(4) < greedyChance) {
+                    square = -1;
+                    flips = 0;
+                    int bestCount = -1;
+                    int ties = 0;
+                    for (long rest = legal; rest != 0; rest &= rest - 1) {
+                        int candidate = Long.numberOfTrailingZeros(rest);
+                        long candidateFlips = board.flips(candidate);
+                        int count = Long.bitCount(candidateFlips);
+                        if (count > bestCount) {
+                            bestCount = count;
+                            ties = 1;
+                        } else if (count < bestCount || random.nextInt(++ties) != 0) {
+                            continue;
+                        }
+                        square = candidate;
+                        flips = candidateFlips;
+                    }
+                } else {
+                    int skip = random.nextInt(Long.bitCount(legal));
+                    for (int i = 0; i < skip; i++) legal &= legal - 1;
+                    square = Long.numberOfTrailingZeros(legal);
+                    flips = board.flips(square);
+                }
+
+                int kinds = 0;
+                moves[kinds++] = SearchBoard.move(square, BitBoards.SIMPLE);
+                if (board.bombsLeft(true) > 0) moves[kinds++] = SearchBoard.move(square, BitBoards.BOMB);
+                if (board.unflippablesLeft(true) > 0) moves[kinds++] = SearchBoard.move(square, BitBoards.UNFLIPPABLE);
+                board.makeMove(moves[random.nextInt(kinds)], flips);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Publishes the metrics MBeans of the game through the platform MBean server, where JConsole, VisualVM or any JMX
+ * client can read them while the game runs. Every MBean is registered under the domain "reversi":
+ * - reversi:type=GameLogic, see {@link GameLogicMetrics}.
+ * - reversi:type=AIPlayer,name=(the AI type), see {@link AIPlayerMetrics}.
+ *
+ * Metrics must never stop the game, so an MBean that cannot be registered is silently left out.
+ */
+public final class Metrics {
+
+    /**
+     * The JMX domain of every MBean of the game.
+     */
+    public static final String domain = "reversi";
+
+    private Metrics() {
+    }
+
+    /**
+     * Registers an MBean with the platform MBean server.
+     *
+     * @param mbean      The MBean.
+     * @param properties The key properties of its name, for example "type=GameLogic".
+     */
+    static void register(Object mbean, String properties) {
+        try {
+            ObjectName name = new ObjectName(domain + ":" + properties);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, name);
+            }
+        } catch (JMException | SecurityException e) {
+            // Another copy of the classes registered the name first, or JMX is not allowed: run without the MBean
+        }
+    }
+}
@@ -1,6 +1,3 @@
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents a move made in the game. A move consists of a position where the disc is placed,
  * the type of disc being placed (e.g., normal, bomb), and the discs that are flipped as a result
@@ -10,7 +7,7 @@ public class Move {
 
     private Position position;      // The position where the disc is placed
     private Disc disc;              // The disc being placed (could be normal, bomb, etc.)
-    private List<Position> flippedDiscs = new ArrayList<>();
+    private PositionSet flippedDiscs; // The discs flipped by this move
 
     /**
      * Constructor to initialize a move with a given position and disc.
@@ -21,15 +18,15 @@ public class Move {
     public Move(Position position, Disc disc) {
         this.position = position;
         this.disc = disc;
-        this.flippedDiscs = new ArrayList<>();
+        this.flippedDiscs = new PositionSet();
     }
 
     /**
-     * Sets the list of discs that are flipped as a result of this move.
+     * Sets the discs that are flipped as a result of this move.
      *
-     * @param flippedDiscs A list of positions representing the discs that are flipped.
+     * @param flippedDiscs A set of positions representing the discs that are flipped.
      */
-    public void setFlippedDiscs(List<Position> flippedDiscs) {
+    public void setFlippedDiscs(PositionSet flippedDiscs) {
         this.flippedDiscs = flippedDiscs;
     }
 
@@ -43,11 +40,11 @@ public class Move {
     }
 
     /**
-     * Gets the list of discs that were flipped as a result of this move.
+     * Gets the discs that were flipped as a result of this move.
      *
-     * @return A list of positions of the discs that were flipped, or an empty list if no discs were flipped.
+     * @return A set of positions of the discs that were flipped, or an empty set if no discs were flipped.
      */
-    public List<Position> getFlippedDiscs() {
+    public PositionSet getFlippedDiscs() {
         return flippedDiscs;
     }
 
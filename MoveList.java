@@ -0,0 +1,121 @@
+/**
+ * A reusable buffer holding the valid moves of a position, filled by {@link PlayableLogic#generateMoves(MoveList)}.
+ * Each move is stored as its square index (row * 8 + col) together with the mask of the discs it flips,
+ * so a caller can read every move and its flips without computing them again and without allocating objects.
+ */
+public final class MoveList {
+
+    private static final int capacity = 64;
+
+    private final int[] squares = new int[capacity]; // The square of each move
+    private final long[] flips = new long[capacity];  // The discs flipped by each move, as a mask of squares
+    private int size;
+
+    /**
+     * Removes every move from the buffer.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a move to the buffer.
+     *
+     * @param square The square index of the move (row * 8 + col).
+     * @param flips  The mask of the discs flipped by the move.
+     */
+    public void add(int square, long flips) {
+        this.squares[size] = square;
+        this.flips[size] = flips;
+        size++;
+    }
+
+    /**
+     * Replaces the content of the buffer with the moves of another buffer.
+     *
+     * @param other The buffer to copy.
+     */
+    public void copyFrom(MoveList other) {
+        System.arraycopy(other.squares, 0, squares, 0, other.size);
+        System.arraycopy(other.flips, 0, flips, 0, other.size);
+        size = other.size;
+    }
+
+    /**
+     * Returns the number of moves in the buffer.
+     *
+     * @return The number of moves.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the buffer holds no moves.
+     *
+     * @return true if there are no moves, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the square index of a move.
+     *
+     * @param i The index of the move in the buffer.
+     * @return The square index (row * 8 + col).
+     */
+    public int square(int i) {
+        return squares[i];
+    }
+
+    /**
+     * Returns the row of a move.
+     *
+     * @param i The index of the move in the buffer.
+     * @return The row index.
+     */
+    public int row(int i) {
+        return squares[i] >>> 3;
+    }
+
+    /**
+     * Returns the column of a move.
+     *
+     * @param i The index of the move in the buffer.
+     * @return The column index.
+     */
+    public int col(int i) {
+        return squares[i] & 7;
+    }
+
+    /**
+     * Returns the position of a move.
+     *
+     * @param i The index of the move in the buffer.
+     * @return The (shared) position of the move.
+     */
+    public Position position(int i) {
+        return PositionSet.positionOf(squares[i]);
+    }
+
+    /**
+     * Returns the discs flipped by a move.
+     *
+     * @param i The index of the move in the buffer.
+     * @return The mask of the flipped discs.
+     */
+    public long flips(int i) {
+        return flips[i];
+    }
+
+    /**
+     * Returns the number of discs flipped by a move.
+     *
+     * @param i The index of the move in the buffer.
+     * @return The number of flipped discs.
+     */
+    public int flipCount(int i) {
+        return Long.bitCount(flips[i]);
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Arrays;
+
+/**
+ * Orders the moves of a search so that the best ones are searched first, which lets alpha-beta pruning cut off the
+ * rest sooner. The moves are tried in this order:
+ * - The hash move: the best move found for the position by an earlier search, from the {@link TranspositionTable}.
+ * - The killer moves of the ply: the last two moves that caused a cutoff in another position at the same distance
+ *   from the root. Sibling positions often share a refutation.
+ * - Every other move, by its history score plus its static square weight: corners come early, and the squares
+ *   next to a corner late.
+ *   The history table counts how well each move, a square together with a disc kind, did in the whole search:
+ *   every cutoff adds the square of its remaining depth, so cutoffs near the root count the most.
+ *
+ * One instance serves one search thread and is not thread-safe.
+ */
+public class MoveOrdering {
+
+    private static final int maxPly = 64;
+    private static final int hashMoveKey = Integer.MAX_VALUE;
+    private static final int killerKey = 1 << 30;   // Above any history score
+    private static final int historyLimit = 1 << 24; // History scores are halved when one of them gets this high
+
+    // The classic Reversi square weights: corners are worth a lot, and the squares next to an empty corner are dangerous
+    private static final int[] squareWeights = {
+            100, -20, 10, 5, 5, 10, -20, 100,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            10, -2, 1, 1, 1, 1, -2, 10,
+            5, -2, 1, 0, 0, 1, -2, 5,
+            5, -2, 1, 0, 0, 1, -2, 5,
+            10, -2, 1, 1, 1, 1, -2, 10,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            100, -20, 10, 5, 5, 10, -20, 100
+    };
+
+    private final int[][] killers = new int[maxPly + 1][2];
+    private final int[] history = new int[SearchBoard.maxMoves]; // Indexed by encoded move: square and disc kind
+    private final int[] keys = new int[SearchBoard.maxMoves];
+
+    /**
+     * Constructs a move ordering without any killer moves or history.
+     */
+    public MoveOrdering() {
+        clearKillers();
+    }
+
+    /**
+     * Prepares for the search of a new position. Killer moves are forgotten, since plies now start from another
+     * root, and the history is halved, so it follows the game without losing what it learned.
+     */
+    public void newSearch() {
+        clearKillers();
+        for (int i = 0; i < history.length; i++) history[i] >>= 1;
+    }
+
+    /**
+     * Sorts moves from the most to the least promising. Moves with the same key keep their order.
+     *
+     * @param moves    The moves, as filled by {@link SearchBoard#generateMoves(long, int[])}.
+     * @param count    The number of moves.
+     * @param hashMove The best move stored for the position, or -1 if there is none.
+     * @param ply      The distance of the position from the root.
+     */
+    public void order(int[] moves, int count, int hashMove, int ply) {
+        int[] killer = killers[ply];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int key;
+            if (move == hashMove) key = hashMoveKey;
+            else if (move == killer[0]) key = killerKey;
+            else if (move == killer[1]) key = killerKey - 1;
+            else key = history[move] + squareWeights[SearchBoard.squareOf(move)];
+
+            // Insertion sort: move lists are short, and mostly come in a good order already
+            int j = i;
+            for (; j > 0 && keys[j - 1] < key; j--) {
+                keys[j] = keys[j - 1];
+                moves[j] = moves[j - 1];
+            }
+            keys[j] = key;
+            moves[j] = move;
+        }
+    }
+
+    /**
+     * Records a move that caused a cutoff, so that it is tried earlier in the positions that follow.
+     *
+     * @param move  The move.
+     * @param depth The remaining depth of the position it was played in.
+     * @param ply   The distance of the position from the root.
+     */
+    public void cutoff(int move, int depth, int ply) {
+        int[] killer = killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        history[move] += depth * depth;
+        if (history[move] >= historyLimit) {
+            for (int i = 0; i < history.length; i++) history[i] >>= 1;
+        }
+    }
+
+    /**
+     * Forgets the killer moves of every ply.
+     */
+    private void clearKillers() {
+        for (int[] killer : killers) Arrays.fill(killer, -1);
+    }
+}
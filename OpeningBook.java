@@ -0,0 +1,219 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only opening book: a binary file of searched moves, keyed by the Zobrist hash of the position they are played
+ * from (see {@link Zobrist}). The hash includes the bombs and unflippable discs each player has left, so the book can
+ * hold special disc moves as well as simple ones.
+ *
+ * The file is memory-mapped rather than read, so its pages stay in the operating system's page cache: every thread
+ * and every JVM that opens the same file shares one copy, and none of it is loaded onto the heap. A lookup is a binary
+ * search over the mapped entries, which takes microseconds instead of the time of a full search.
+ *
+ * File layout (big-endian):
+ * - A header of 16 bytes: the magic number, the format version, the number of entries and a reserved int.
+ * - The entries, 16 bytes each, sorted by hash and then by score, best first:
+ *   the hash (long), the move encoded as in {@link SearchBoard} (short), the depth it was searched to (short),
+ *   and its score for the player to move, as in {@link AlphaBetaSearch} (int).
+ * A position may have several entries, one per move kept in the book. Books are written by {@link OpeningBookBuilder}.
+ */
+public final class OpeningBook {
+
+    /**
+     * The first int of every book file, "RVBK" in ASCII.
+     */
+    public static final int magic = 0x5256424B;
+
+    /**
+     * The version of the file layout described above.
+     */
+    public static final int version = 1;
+
+    /**
+     * The size of the file header, in bytes.
+     */
+    public static final int headerSize = 16;
+
+    /**
+     * The size of each entry, in bytes.
+     */
+    public static final int entrySize = 16;
+
+    /**
+     * The system property naming the book file used by the AI players.
+     */
+    public static final String bookProperty = "reversi.book";
+
+    /**
+     * The book file used by the AI players when the system property is not set, in the working directory.
+     */
+    public static final String defaultFile = "opening-book.bin";
+
+    /**
+     * A book without any entries, for players that should always search.
+     */
+    public static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(headerSize), 0);
+
+    private static volatile OpeningBook defaultBook; // Opened on first use
+
+    private final ByteBuffer entries; // Only read with absolute gets, so threads can share it
+    private final int size;
+
+    /**
+     * Constructs a book over a buffer holding a whole book file.
+     *
+     * @param entries The file contents.
+     * @param size    The number of entries.
+     */
+    private OpeningBook(ByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * Opens a book file by mapping it into memory, read-only.
+     * The file can be closed right away: the mapping stays valid until the book is garbage collected.
+     *
+     * @param file The book file.
+     * @return The book.
+     * @throws IOException if the file cannot be read, or is not a book file of this version.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < headerSize || length > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != magic) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            if (buffer.getInt(4) != version) {
+                throw new IOException("Unsupported opening book version " + buffer.getInt(4) + ": " + file);
+            }
+            int size = buffer.getInt(8);
+            if (size < 0 || headerSize + (long) size * entrySize > length) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            return new OpeningBook(buffer, size);
+        }
+    }
+
+    /**
+     * Returns the book shared by the AI players: the file named by the "reversi.book" system property, or
+     * "opening-book.bin" in the working directory. The file is opened once, on first use.
+     *
+     * @return The shared book, or {@link #EMPTY} if there is no book file or it cannot be read.
+     */
+    public static OpeningBook getDefault() {
+        OpeningBook book = defaultBook;
+        if (book == null) {
+            synchronized (OpeningBook.class) {
+                book = defaultBook;
+                if (book == null) {
+                    Path file = Paths.get(System.getProperty(bookProperty, defaultFile));
+                    try {
+                        book = Files.isRegularFile(file) ? open(file) : EMPTY;
+                    } catch (IOException e) {
+                        book = EMPTY; // Players still work without a book, only slower in the opening
+                    }
+                    defaultBook = book;
+                }
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Returns the best book move of a position.
+     *
+     * @param hash The Zobrist hash of the position, as returned by {@link SearchBoard#hash()}.
+     * @return The move, encoded as in {@link SearchBoard}, or -1 if the position is not in the book.
+     */
+    public int bestMove(long hash) {
+        int index = find(hash);
+        return index < 0 ? -1 : move(index);
+    }
+
+    /**
+     * Finds the first entry of a position, which holds its best move.
+     * The entries of the same position follow it, best first.
+     *
+     * @param hash The Zobrist hash of the position.
+     * @return The index of the entry, or -1 if the position is not in the book.
+     */
+    public int find(long hash) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (hash(middle) < hash) low = middle + 1;
+            else high = middle;
+        }
+        return low < size && hash(low) == hash ? low : -1;
+    }
+
+    /**
+     * Returns the hash of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The Zobrist hash of the position the move is played from.
+     */
+    public long hash(int index) {
+        return entries.getLong(offset(index));
+    }
+
+    /**
+     * Returns the move of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The move, encoded as in {@link SearchBoard}.
+     */
+    public int move(int index) {
+        return entries.getShort(offset(index) + 8);
+    }
+
+    /**
+     * Returns the depth the move of an entry was searched to.
+     *
+     * @param index The index of the entry.
+     * @return The search depth.
+     */
+    public int depth(int index) {
+        return entries.getShort(offset(index) + 10);
+    }
+
+    /**
+     * Returns the score of the move of an entry, for the player to move.
+     *
+     * @param index The index of the entry.
+     * @return The score, as in {@link AlphaBetaSearch}.
+     */
+    public int score(int index) {
+        return entries.getInt(offset(index) + 12);
+    }
+
+    /**
+     * Returns the number of entries in the book.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of an entry in the file.
+     *
+     * @param index The index of the entry.
+     * @return The offset of the entry, in bytes.
+     */
+    private int offset(int index) {
+        return headerSize + index * entrySize;
+    }
+}
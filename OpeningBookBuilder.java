@@ -0,0 +1,198 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes {@link OpeningBook} files.
+ * The book is built by searching every move, special discs included, from the start position set up by
+ * GameLogic.reset, and going on from the moves that score close to the best one, up to a number of plies.
+ * Positions reached through different move orders are only searched once.
+ *
+ * Usage: java OpeningBookBuilder [file] [plies] [depth] [margin]
+ * - file:   the book file to write, "opening-book.bin" by default.
+ * - plies:  how many moves deep the book goes, 6 by default.
+ * - depth:  the depth each move is searched to, 6 by default.
+ * - margin: how far below the best score a move may be and still be kept, 8 by default.
+ */
+public class OpeningBookBuilder {
+
+    private static final int defaultPlies = 6;
+    private static final int defaultDepth = 6;
+    private static final int defaultMargin = 8;
+    private static final int movesPerPosition = 3; // The most moves kept for one position
+    private static final int tableSize = 64;       // Megabytes
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Set<Long> searched = new HashSet<>();
+    private final AlphaBetaSearch search = new AlphaBetaSearch();
+    private final TranspositionTable table = new PackedTranspositionTable(tableSize);
+    private final PatternEvaluation evaluation = PatternEvaluation.getDefault(); // Scores the moves at depth 1
+    private final int depth;
+    private final int margin;
+
+    /**
+     * A move of the book, before it is written.
+     */
+    private static final class Entry {
+        private final long hash;
+        private final int move;
+        private final int depth;
+        private final int score;
+
+        /**
+         * Constructs an entry, see {@link #add(long, int, int, int)}.
+         */
+        private Entry(long hash, int move, int depth, int score) {
+            this.hash = hash;
+            this.move = move;
+            this.depth = depth;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Constructs a builder with an empty book.
+     *
+     * @param depth  The depth each move is searched to.
+     * @param margin How far below the best score of a position a move may be and still be kept.
+     * @throws IllegalArgumentException if the depth is not positive or the margin is negative.
+     */
+    public OpeningBookBuilder(int depth, int margin) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Search depth must be positive: " + depth);
+        }
+        if (margin < 0) {
+            throw new IllegalArgumentException("Margin must not be negative: " + margin);
+        }
+        this.depth = depth;
+        this.margin = margin;
+        search.setTable(table);
+        search.setEvaluation(evaluation);
+    }
+
+    /**
+     * Adds a move to the book.
+     *
+     * @param hash  The Zobrist hash of the position the move is played from.
+     * @param move  The move, encoded as in {@link SearchBoard}.
+     * @param depth The depth the move was searched to.
+     * @param score The score of the move for the player to move, as in {@link AlphaBetaSearch}.
+     */
+    public void add(long hash, int move, int depth, int score) {
+        entries.add(new Entry(hash, move, depth, score));
+    }
+
+    /**
+     * Searches the moves of a position, adds the best ones to the book, and goes on from each of them.
+     *
+     * @param position The position. It is not changed.
+     * @param plies    How many more moves deep the book goes from this position.
+     */
+    public void expand(SearchBoard position, int plies) {
+        if (plies == 0 || !searched.add(position.hash())) return;
+        int[] moves = new int[SearchBoard.maxMoves];
+        int count = position.generateMoves(position.legalMoves(), moves);
+        if (count == 0) return;
+
+        // Score every move with a search of the position after it
+        int[] scores = new int[count];
+        for (int i = 0; i < count; i++) {
+            SearchBoard child = search.board();
+            child.copyFrom(position);
+            child.makeMove(moves[i]);
+            if (child.legalMoves() == 0) {
+                scores[i] = -AlphaBetaSearch.finalScore(child);
+            } else if (depth == 1) {
+                // A search to depth 0 stops at the root without a score, so evaluate the position as its leaves would
+                scores[i] = -evaluation.evaluate(child, child.legalMoves());
+            } else {
+                table.newSearch();
+                search.search(Long.MAX_VALUE, depth - 1);
+                scores[i] = -search.bestScore();
+            }
+        }
+
+        // Keep the best moves, best first, and go on from each of them
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> -scores[i]));
+        int best = scores[order[0]];
+        for (int k = 0; k < Math.min(count, movesPerPosition); k++) {
+            int i = order[k];
+            if (scores[i] < best - margin) break;
+            add(position.hash(), moves[i], depth, scores[i]);
+            SearchBoard child = new SearchBoard();
+            child.copyFrom(position);
+            child.makeMove(moves[i]);
+            expand(child, plies - 1);
+        }
+    }
+
+    /**
+     * Writes the book to a file, replacing it if it exists.
+     *
+     * @param file The book file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        // Entries of the same position are kept in the order they were added, which is best first
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(entry -> entry.hash));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.headerSize + sorted.size() * OpeningBook.entrySize);
+            buffer.putInt(OpeningBook.magic);
+            buffer.putInt(OpeningBook.version);
+            buffer.putInt(sorted.size());
+            buffer.putInt(0);
+            for (Entry entry : sorted) {
+                buffer.putLong(entry.hash);
+                buffer.putShort((short) entry.move);
+                buffer.putShort((short) entry.depth);
+                buffer.putInt(entry.score);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * Returns the number of moves added to the book so far.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Builds a book from the start position and writes it.
+     *
+     * @param args The optional file, plies, depth and margin, in this order.
+     * @throws IOException if the book cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : OpeningBook.defaultFile);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : defaultPlies;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : defaultDepth;
+        int margin = args.length > 3 ? Integer.parseInt(args[3]) : defaultMargin;
+
+        long start = System.nanoTime();
+        SearchBoard position = new SearchBoard();
+        position.load(new GameLogic());
+        OpeningBookBuilder builder = new OpeningBookBuilder(depth, margin);
+        builder.expand(position, plies);
+        builder.write(file);
+        System.out.printf("Wrote %d moves to %s in %.1f s%n", builder.size(), file, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+/**
+ * A transposition table of fixed size, stored in two primitive long arrays: one for the hashes and one for the
+ * packed results. Its memory is allocated once, from a ceiling given in megabytes, and never grows, so it stays
+ * flat over any number of searches.
+ *
+ * The table is made of buckets of two slots:
+ * - The depth-preferred slot keeps the deepest result, since it saved the most work. It is only replaced by a result
+ *   searched at least as deep, or when its result comes from an older search (see {@link #newSearch()}).
+ * - The always-replace slot takes every other result, so recent positions are found even when the first slot is
+ *   holding on to a deep one.
+ *
+ * This table is not thread-safe: it is meant for a single search thread.
+ */
+public class PackedTranspositionTable implements TranspositionTable {
+
+    private static final int bytesPerBucket = 4 * Long.BYTES; // Two slots of a hash and a result
+    private static final long resultMask = (1L << 56) - 1;    // The packed result, below the age of the slot
+    private static final int ageShift = 56;
+
+    private final long[] keys;
+    private final long[] results;
+    private final int bucketMask;
+    private long age;          // Counts searches, stored in the top bits of every result
+    private long probes;
+    private long hits;
+
+    /**
+     * Constructs a table using at most the given amount of memory.
+     *
+     * @param megabytes The memory ceiling, in megabytes. The table uses the largest power of two number of buckets
+     *                  that fits, and at least one bucket.
+     * @throws IllegalArgumentException if the ceiling is not positive.
+     */
+    public PackedTranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Memory ceiling must be at least 1 MB: " + megabytes);
+        }
+        long buckets = Long.highestOneBit(megabytes * (1L << 20) / bytesPerBucket);
+        buckets = Math.min(buckets, 1 << 29); // Two slots per bucket must fit in a Java array
+        keys = new long[(int) buckets * 2];
+        results = new long[(int) buckets * 2];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Looks up the result stored for a position, in both slots of its bucket.
+     *
+     * @param hash The hash of the position.
+     * @return The packed result, or 0 if there is none.
+     */
+    @Override
+    public long probe(long hash) {
+        probes++;
+        int slot = slotOf(hash);
+        if (keys[slot] == hash && results[slot] != 0) {
+            hits++;
+            return results[slot] & resultMask;
+        }
+        if (keys[slot + 1] == hash && results[slot + 1] != 0) {
+            hits++;
+            return results[slot + 1] & resultMask;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of a search in the depth-preferred slot if it is at least as deep as the result there, or if
+     * that result is from an older search, and in the always-replace slot otherwise.
+     *
+     * @param hash  The hash of the position.
+     * @param depth The depth the position was searched to.
+     * @param bound EXACT, LOWER or UPPER.
+     * @param score The score of the position.
+     * @param move  The best move found, or -1 if there is none.
+     */
+    @Override
+    public void store(long hash, int depth, int bound, int score, int move) {
+        long result = TranspositionTable.pack(depth, bound, score, move) | age << ageShift;
+        int slot = slotOf(hash);
+        long current = results[slot];
+        if (keys[slot] == hash || current == 0 || current >>> ageShift != age
+                || depth >= TranspositionTable.depth(current & resultMask)) {
+            keys[slot] = hash;
+            results[slot] = result;
+        } else {
+            keys[slot + 1] = hash;
+            results[slot + 1] = result;
+        }
+    }
+
+    /**
+     * Returns the first slot of the bucket of a hash.
+     *
+     * @param hash The hash of a position.
+     * @return The index of the depth-preferred slot.
+     */
+    private int slotOf(long hash) {
+        // The low bits also feed the hash check, so the bucket is picked from the high bits
+        return ((int) (hash >>> 32) & bucketMask) << 1;
+    }
+
+    /**
+     * Marks the results stored so far as old, so that the depth-preferred slots accept new results again.
+     */
+    @Override
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Removes every result from the table.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(results, 0);
+    }
+
+    /**
+     * Returns the number of lookups since the table was created or its statistics were reset.
+     *
+     * @return The number of calls to probe.
+     */
+    @Override
+    public long probes() {
+        return probes;
+    }
+
+    /**
+     * Returns the number of lookups that found a result.
+     *
+     * @return The number of successful calls to probe.
+     */
+    @Override
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Sets the lookup statistics back to 0.
+     */
+    @Override
+    public void resetStatistics() {
+        probes = 0;
+        hits = 0;
+    }
+
+    /**
+     * Returns the number of results the table can hold.
+     *
+     * @return The number of slots.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * An {@link AlphaBetaAI} that searches with one thread per available processor.
+ */
+public class ParallelAlphaBetaAI extends AlphaBetaAI {
+
+    /**
+     * Constructs a new ParallelAlphaBetaAI player.
+     *
+     * @param isPlayerOne true if this is the first player, false for second player.
+     */
+    public ParallelAlphaBetaAI(boolean isPlayerOne) {
+        super(isPlayerOne);
+        setThreads(Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A parallel alpha-beta search in the "Lazy SMP" style: several {@link AlphaBetaSearch} workers search the same
+ * position at the same time on a ForkJoinPool, each on its own copy of the board, and share their results through
+ * one {@link TranspositionTable}. Every worker benefits from the positions the others already searched, so the
+ * search as a whole gets deeper within the same time. Half of the helpers start one depth deeper than the main
+ * worker to spread the workers over different depths.
+ *
+ * The live game is only read once, before the workers start. The search stops when the deadline passes or when any
+ * worker has searched every depth, and answers with the move of the worker that finished the deepest depth.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private final AlphaBetaSearch[] workers;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+    private final SearchBoard root = new SearchBoard();
+    private final int[] results;
+    private int lastWorker; // The worker whose move was played last
+
+    /**
+     * Constructs a parallel search with its own thread pool.
+     *
+     * @param threads The number of worker threads.
+     * @param table   The table shared by all the workers. It must be safe to use from several threads at once,
+     *                such as a {@link LocklessTranspositionTable}.
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.table = table;
+        this.pool = new ForkJoinPool(threads);
+        this.workers = new AlphaBetaSearch[threads];
+        this.results = new int[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new AlphaBetaSearch();
+            workers[i].setTable(table);
+        }
+    }
+
+    /**
+     * Searches a game position with every worker and returns the best move found before the deadline.
+     *
+     * @param game     The position to search. It is only read, before the workers start.
+     * @param deadline The System.nanoTime() value at which the search must stop.
+     * @param maxDepth The deepest depth to search.
+     * @return The best move, encoded as in {@link SearchBoard}, or -1 if the player to move has no moves.
+     */
+    public int search(PlayableLogic game, long deadline, int maxDepth) {
+        root.load(game);
+        List<Callable<Void>> tasks = new ArrayList<>(workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            int id = i;
+            AlphaBetaSearch worker = workers[i];
+            worker.board().copyFrom(root);
+            worker.resume();
+            tasks.add(() -> {
+                results[id] = worker.search(deadline, 1 + id % 2, maxDepth);
+                // The first worker to finish ends the search for everyone, even workers that have not started yet
+                for (AlphaBetaSearch other : workers) other.stop();
+                return null;
+            });
+        }
+        pool.invokeAll(tasks);
+
+        // Play the move of the deepest finished search, preferring the main worker on ties
+        lastWorker = 0;
+        for (int i = 1; i < workers.length; i++) {
+            if (workers[i].completedDepth() > workers[lastWorker].completedDepth()) {
+                lastWorker = i;
+            }
+        }
+        return results[lastWorker];
+    }
+
+    /**
+     * Returns the number of positions visited by all the workers during the last search.
+     *
+     * @return The total node count.
+     */
+    public long nodes() {
+        long nodes = 0;
+        for (AlphaBetaSearch worker : workers) nodes += worker.nodes();
+        return nodes;
+    }
+
+    /**
+     * Returns the depth behind the move of the last search.
+     *
+     * @return The deepest completed depth.
+     */
+    public int completedDepth() {
+        return workers[lastWorker].completedDepth();
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return The number of threads.
+     */
+    public int threads() {
+        return workers.length;
+    }
+
+    /**
+     * Returns the table shared by the workers.
+     *
+     * @return The shared table.
+     */
+    public TranspositionTable table() {
+        return table;
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,347 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A table-driven evaluation of search positions. Instead of looking at squares one by one, it reads whole groups of
+ * squares (patterns) as numbers and looks their scores up in precomputed tables, so that each evaluation is a handful
+ * of array lookups and a few bit operations.
+ * Scores are given from the point of view of the player to move: positive means the player to move is better.
+ *
+ * The score adds up:
+ * - The four edges, each read as an 8-digit base-3 number (empty, own disc, opponent disc) from one corner to the
+ *   other. The edge table knows which edge discs are anchored to a corner or sit on a full edge, and can no longer be
+ *   flipped along the edge.
+ * - The four corner regions, each made of the corner, its two C-squares and its X-square, read as a 4-digit base-7
+ *   number that includes the disc kind: empty, own simple, own bomb, own unflippable, opponent simple, opponent bomb,
+ *   opponent unflippable. A bomb next to its owner's corner can take the corner back when it is flipped.
+ * - Mobility: the difference in the number of legal squares.
+ * - Parity: whether the player to move gets the last move of the game if both players keep moving.
+ * - Unflippable discs on the board, and the special discs each player still holds.
+ * - Stable discs (see {@link Stability}), which can never be flipped again.
+ *
+ * The weights are loaded from a compact binary file (big-endian):
+ * - A header of 16 bytes: the magic number, the format version, the size of the edge table and the size of the
+ *   corner table.
+ * - The mobility, parity, unflippable, special disc and stability weights, as ints.
+ * - The edge table and then the corner table, as shorts.
+ * When there is no weights file, the built-in weights of {@link #defaults()} are used; running this class writes them
+ * to a file.
+ */
+public final class PatternEvaluation {
+
+    /**
+     * The first int of every weights file, "RVPW" in ASCII.
+     */
+    public static final int magic = 0x52565057;
+
+    /**
+     * The version of the file layout described above.
+     */
+    public static final int version = 2;
+
+    /**
+     * The system property naming the weights file used by the AI players.
+     */
+    public static final String weightsProperty = "reversi.weights";
+
+    /**
+     * The weights file used by the AI players when the system property is not set, in the working directory.
+     */
+    public static final String defaultFile = "pattern-weights.bin";
+
+    private static final int edgeSize = 6561;  // 3^8
+    private static final int cornerSize = 2401; // 7^4
+    private static final int fileSize = 16 + 5 * Integer.BYTES + 2 * (edgeSize + cornerSize);
+    private static final long column0 = 0x0101010101010101L;
+    private static final long columnMagic = 0x0102040810204080L; // Gathers the bits of column 0 into the top byte
+
+    // The corner regions: the corner, its two C-squares and its X-square
+    private static final int[][] cornerSquares = {{0, 1, 8, 9}, {7, 6, 15, 14}, {56, 57, 48, 49}, {63, 62, 55, 54}};
+
+    // base3[b] is the base-3 number whose digits are the bits of b, so that an edge holding the own discs own and the
+    // opponent discs opp has the index base3[own] + 2 * base3[opp]
+    private static final int[] base3 = new int[256];
+
+    static {
+        for (int bits = 0; bits < 256; bits++) {
+            int value = 0;
+            for (int i = 7; i >= 0; i--) value = value * 3 + (bits >>> i & 1);
+            base3[bits] = value;
+        }
+    }
+
+    private static volatile PatternEvaluation defaultEvaluation; // Loaded on first use
+
+    private final short[] edgeWeights;
+    private final short[] cornerWeights;
+    private final int mobilityWeight;
+    private final int parityWeight;
+    private final int unflippableWeight;
+    private final int specialLeftWeight;
+    private final int stabilityWeight;
+
+    /**
+     * Constructs an evaluation with the given weights.
+     *
+     * @param edgeWeights       The score of every edge pattern.
+     * @param cornerWeights     The score of every corner pattern.
+     * @param mobilityWeight    The weight of each legal square.
+     * @param parityWeight      The bonus for getting the last move.
+     * @param unflippableWeight The weight of each unflippable disc on the board.
+     * @param specialLeftWeight The weight of each bomb or unflippable disc left.
+     * @param stabilityWeight   The weight of each stable disc.
+     */
+    private PatternEvaluation(short[] edgeWeights, short[] cornerWeights, int mobilityWeight, int parityWeight,
+                              int unflippableWeight, int specialLeftWeight, int stabilityWeight) {
+        this.edgeWeights = edgeWeights;
+        this.cornerWeights = cornerWeights;
+        this.mobilityWeight = mobilityWeight;
+        this.parityWeight = parityWeight;
+        this.unflippableWeight = unflippableWeight;
+        this.specialLeftWeight = specialLeftWeight;
+        this.stabilityWeight = stabilityWeight;
+    }
+
+    /**
+     * Evaluates a position that is not over.
+     *
+     * @param board The position to evaluate.
+     * @param legal The legal squares of the player to move.
+     * @return The score of the position for the player to move.
+     */
+    public int evaluate(SearchBoard board, long legal) {
+        long own = board.own();
+        long opp = board.opponent();
+        long bombs = board.bombs();
+        long unflippables = board.unflippables();
+
+        int score = edgeWeights[edge(own & 0xFF, opp & 0xFF)]
+                + edgeWeights[edge(own >>> 56, opp >>> 56)]
+                + edgeWeights[edge(column(own, 0), column(opp, 0))]
+                + edgeWeights[edge(column(own, 7), column(opp, 7))];
+        for (int[] squares : cornerSquares) {
+            int index = 0;
+            for (int i = squares.length - 1; i >= 0; i--) {
+                index = index * 7 + state(squares[i], own, opp, bombs, unflippables);
+            }
+            score += cornerWeights[index];
+        }
+
+        score += mobilityWeight * (Long.bitCount(legal) - Long.bitCount(board.opponentLegalMoves()));
+        score += (Long.bitCount(board.empty()) & 1) != 0 ? parityWeight : -parityWeight;
+        score += unflippableWeight * (Long.bitCount(own & unflippables) - Long.bitCount(opp & unflippables));
+        score += specialLeftWeight * (board.bombsLeft(true) + board.unflippablesLeft(true)
+                - board.bombsLeft(false) - board.unflippablesLeft(false));
+        if (stabilityWeight != 0) {
+            boolean bombsInHand = board.bombsLeft(true) + board.bombsLeft(false) > 0;
+            score += stabilityWeight * (Long.bitCount(Stability.stableDiscs(own, opp, bombs, unflippables, bombsInHand))
+                    - Long.bitCount(Stability.stableDiscs(opp, own, bombs, unflippables, bombsInHand)));
+        }
+        return score;
+    }
+
+    /**
+     * Returns the index of an edge pattern.
+     *
+     * @param own The own discs of the edge, one bit per square from one corner to the other.
+     * @param opp The opponent discs of the edge, in the same order.
+     * @return The index of the pattern in the edge table.
+     */
+    private static int edge(long own, long opp) {
+        return base3[(int) own] + 2 * base3[(int) opp];
+    }
+
+    /**
+     * Gathers a column of the board into a byte.
+     *
+     * @param discs A mask of discs.
+     * @param col   The column.
+     * @return The discs of the column, with row k in bit k.
+     */
+    private static long column(long discs, int col) {
+        return ((discs >>> col & column0) * columnMagic) >>> 56;
+    }
+
+    /**
+     * Returns the base-7 digit of a square in a corner pattern.
+     *
+     * @param square       The square.
+     * @param own          The discs of the player to move.
+     * @param opp          The discs of the opponent.
+     * @param bombs        All the bomb discs.
+     * @param unflippables All the unflippable discs.
+     * @return 0 for an empty square, 1 to 3 for an own simple disc, bomb or unflippable disc, and 4 to 6 for the same
+     * kinds of opponent discs.
+     */
+    private static int state(int square, long own, long opp, long bombs, long unflippables) {
+        long bit = 1L << square;
+        int kind = (bombs & bit) != 0 ? BitBoards.BOMB : (unflippables & bit) != 0 ? BitBoards.UNFLIPPABLE : BitBoards.SIMPLE;
+        if ((own & bit) != 0) return 1 + kind;
+        if ((opp & bit) != 0) return 4 + kind;
+        return 0;
+    }
+
+    /**
+     * Returns the evaluation shared by the AI players: the weights file named by the "reversi.weights" system property,
+     * or "pattern-weights.bin" in the working directory. The file is read once, on first use.
+     *
+     * @return The shared evaluation, or the built-in weights if there is no weights file or it cannot be read.
+     */
+    public static PatternEvaluation getDefault() {
+        PatternEvaluation evaluation = defaultEvaluation;
+        if (evaluation == null) {
+            synchronized (PatternEvaluation.class) {
+                evaluation = defaultEvaluation;
+                if (evaluation == null) {
+                    Path file = Paths.get(System.getProperty(weightsProperty, defaultFile));
+                    try {
+                        evaluation = Files.isRegularFile(file) ? load(file) : defaults();
+                    } catch (IOException e) {
+                        evaluation = defaults(); // Players still work with the built-in weights
+                    }
+                    defaultEvaluation = evaluation;
+                }
+            }
+        }
+        return evaluation;
+    }
+
+    /**
+     * Reads the weights of an evaluation from a file.
+     *
+     * @param file The weights file.
+     * @return The evaluation.
+     * @throws IOException if the file cannot be read, or is not a weights file of this version.
+     */
+    public static PatternEvaluation load(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < 16 || buffer.getInt() != magic) {
+            throw new IOException("Not a pattern weights file: " + file);
+        }
+        int fileVersion = buffer.getInt();
+        if (fileVersion != version || buffer.getInt() != edgeSize || buffer.getInt() != cornerSize) {
+            throw new IOException("Unsupported pattern weights version " + fileVersion + ": " + file);
+        }
+        if (buffer.capacity() != fileSize) {
+            throw new IOException("Truncated pattern weights file: " + file);
+        }
+        int mobility = buffer.getInt();
+        int parity = buffer.getInt();
+        int unflippable = buffer.getInt();
+        int specialLeft = buffer.getInt();
+        int stability = buffer.getInt();
+        short[] edges = new short[edgeSize];
+        short[] corners = new short[cornerSize];
+        buffer.asShortBuffer().get(edges).get(corners);
+        return new PatternEvaluation(edges, corners, mobility, parity, unflippable, specialLeft, stability);
+    }
+
+    /**
+     * Writes the weights of this evaluation to a file, replacing it if it exists.
+     *
+     * @param file The weights file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(fileSize);
+        buffer.putInt(magic).putInt(version).putInt(edgeSize).putInt(cornerSize);
+        buffer.putInt(mobilityWeight).putInt(parityWeight).putInt(unflippableWeight).putInt(specialLeftWeight);
+        buffer.putInt(stabilityWeight);
+        buffer.asShortBuffer().put(edgeWeights).put(cornerWeights);
+        Files.write(file, buffer.array());
+    }
+
+    /**
+     * Builds the evaluation with the built-in weights, computed from classic Reversi rules of thumb:
+     * - Edge discs anchored to a corner, or on a full edge, are worth a lot, since they can no longer be flipped
+     *   along the edge. Other edge discs get the usual square weights, and C-squares next to an empty corner are
+     *   dangerous.
+     * - Corners are worth a lot, unless their owner has a bomb next to them. X-squares next to an empty corner are
+     *   very dangerous.
+     * - Stable discs get no weight of their own: the edge and corner tables already score most of them, and finding
+     *   them is slow enough to cost search depth. A weights file can still give them a weight.
+     *
+     * @return The evaluation.
+     */
+    public static PatternEvaluation defaults() {
+        short[] edges = new short[edgeSize];
+        int[] digits = new int[8];
+        for (int index = 0; index < edgeSize; index++) {
+            for (int i = 0, rest = index; i < 8; i++, rest /= 3) digits[i] = rest % 3;
+            edges[index] = (short) (edgeScore(digits, 1) - edgeScore(digits, 2));
+        }
+        short[] corners = new short[cornerSize];
+        for (int index = 0; index < cornerSize; index++) {
+            for (int i = 0, rest = index; i < 4; i++, rest /= 7) digits[i] = rest % 7;
+            corners[index] = (short) (cornerScore(digits, 1) - cornerScore(digits, 4));
+        }
+        return new PatternEvaluation(edges, corners, 5, 3, 8, 3, 0);
+    }
+
+    /**
+     * Scores the discs of one player on an edge, without its corners, which belong to the corner patterns.
+     *
+     * @param digits The edge, from one corner to the other: 0 for empty, 1 or 2 for a disc of either player.
+     * @param player The digit of the player to score.
+     * @return The score of the player's edge discs.
+     */
+    private static int edgeScore(int[] digits, int player) {
+        int[] squareWeights = {0, -20, 10, 5, 5, 10, -20, 0};
+        boolean full = true;
+        for (int digit : digits) full &= digit != 0;
+        boolean[] anchored = new boolean[8];
+        for (int i = 0; i < 8 && digits[i] == player && digits[0] == player; i++) anchored[i] = true;
+        for (int i = 7; i >= 0 && digits[i] == player && digits[7] == player; i--) anchored[i] = true;
+
+        int score = 0;
+        for (int i = 1; i < 7; i++) {
+            if (digits[i] != player) continue;
+            if (full || anchored[i]) score += 15;
+            else if (i == 1 && digits[0] != 0 || i == 6 && digits[7] != 0) score += -5; // C-square next to the opponent's corner
+            else score += squareWeights[i];
+        }
+        return score;
+    }
+
+    /**
+     * Scores the discs of one player in a corner region.
+     *
+     * @param digits The corner, its two C-squares and its X-square: 0 for empty, 1 to 6 for a disc as in
+     *               {@link #state(int, long, long, long, long)}.
+     * @param player The first digit of the player to score: 1 for the player to move, 4 for the opponent.
+     * @return The score of the player's discs in the region.
+     */
+    private static int cornerScore(int[] digits, int player) {
+        int score = 0;
+        int corner = digits[0];
+        if (corner >= player && corner < player + 3) {
+            score += 100;
+            // A bomb of the same owner next to a flippable corner can flip it when the bomb is flipped
+            if (corner != player + BitBoards.UNFLIPPABLE) {
+                for (int i = 1; i < 4; i++) {
+                    if (digits[i] == player + BitBoards.BOMB) score -= 30;
+                }
+            }
+        }
+        int x = digits[3];
+        if (x >= player && x < player + 3) {
+            score += corner == 0 ? -50 : corner >= player && corner < player + 3 ? 5 : -10;
+        }
+        return score;
+    }
+
+    /**
+     * Writes the built-in weights to a file.
+     *
+     * @param args The optional file, "pattern-weights.bin" by default.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : defaultFile);
+        defaults().save(file);
+        System.out.println("Wrote pattern weights to " + file);
+    }
+}
@@ -0,0 +1,405 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Counts the leaf nodes of the game tree to a fixed depth ("perft"), and checks a move generator against the rules of
+ * GameLogic node by node.
+ *
+ * Every legal square gives a simple disc move, plus a bomb move and an unflippable disc move while the player to move
+ * has some left. The game has no pass rule: a player without a valid move ends the game, so there are no pass moves,
+ * and a game that ends before the given depth adds no leaves.
+ *
+ * Counts are made either on a GameLogic, with its own move generation, or on a {@link Generator}, by default a
+ * {@link SearchBoard}. The check walks the tree on both at once, and at every node compares the generator's moves and
+ * flips with {@link GameLogic#getFlips(Position)} on every empty square. It stops at the first node where they
+ * differ, and describes it with the moves that lead to it. Flip logic can then be optimised safely: any change in the
+ * discs flipped along lines or by bomb chains shows up as a divergence.
+ *
+ * Usage: java Perft [-depth N] [-check] [-record FILE [-game N] [-ply N]]
+ * - depth:  the depth to count to, 6 by default. Every depth from 1 up is counted.
+ * - check:  checks the SearchBoard generator against GameLogic.getFlips to the given depth.
+ * - record: starts from a game of a file of {@link GameRecord}s instead of the start position set up by
+ *   GameLogic.reset: game N of the file (0 by default), after its first N moves (all of them by default).
+ */
+public class Perft {
+
+    private static final int defaultDepth = 6;
+    private static final String[] kindNames = {"simple", "bomb", "unflippable"};
+
+    private final int[][] moves;      // Generator moves of every ply
+    private final MoveList[] lists;   // GameLogic moves of every ply
+    private final int[] path;         // The moves from the root to the current node of a check
+    private long checkedNodes;
+
+    /**
+     * A move generator that can be counted and checked against GameLogic: a board that generates and plays encoded
+     * moves (see {@link SearchBoard}) and can take them back.
+     */
+    public interface Generator {
+
+        /**
+         * Copies the position of a game.
+         *
+         * @param game The game. It is only read.
+         */
+        void load(GameLogic game);
+
+        /**
+         * Fills a buffer with every move of the player to move, in any order.
+         *
+         * @param moves The buffer to fill, of at least {@link SearchBoard#maxMoves} entries.
+         * @return The number of moves.
+         */
+        int generateMoves(int[] moves);
+
+        /**
+         * Computes the discs flipped by a disc of the player to move on an empty square, bomb chains included.
+         *
+         * @param square The square (row * 8 + col).
+         * @return A mask of the flipped discs, empty if the square is not legal.
+         */
+        long flips(int square);
+
+        /**
+         * Plays a move.
+         *
+         * @param move The encoded move.
+         */
+        void makeMove(int move);
+
+        /**
+         * Takes back the last move played.
+         */
+        void unmakeMove();
+    }
+
+    /**
+     * The generator of the search engines.
+     */
+    private static final class SearchBoardGenerator implements Generator {
+        private final SearchBoard board = new SearchBoard();
+
+        /**
+         * Copies the position of a game.
+         *
+         * @param game The game. It is only read.
+         */
+        @Override
+        public void load(GameLogic game) {
+            board.load(game);
+        }
+
+        /**
+         * Fills a buffer with every move of the player to move.
+         *
+         * @param moves The buffer to fill.
+         * @return The number of moves.
+         */
+        @Override
+        public int generateMoves(int[] moves) {
+            return board.generateMoves(board.legalMoves(), moves);
+        }
+
+        /**
+         * Computes the discs flipped by a disc of the player to move on a square.
+         *
+         * @param square The square.
+         * @return A mask of the flipped discs.
+         */
+        @Override
+        public long flips(int square) {
+            return board.flips(square);
+        }
+
+        /**
+         * Plays a move.
+         *
+         * @param move The encoded move.
+         */
+        @Override
+        public void makeMove(int move) {
+            board.makeMove(move);
+        }
+
+        /**
+         * Takes back the last move played.
+         */
+        @Override
+        public void unmakeMove() {
+            board.unmakeMove();
+        }
+    }
+
+    /**
+     * Constructs a perft counter.
+     *
+     * @param maxDepth The largest depth it can count or check to.
+     * @throws IllegalArgumentException if the depth is not positive.
+     */
+    public Perft(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be positive: " + maxDepth);
+        }
+        moves = new int[maxDepth + 1][SearchBoard.maxMoves]; // The leaves of a check generate moves too
+        lists = new MoveList[maxDepth];
+        for (int i = 0; i < maxDepth; i++) lists[i] = new MoveList();
+        path = new int[maxDepth];
+    }
+
+    /**
+     * Creates the generator of the search engines, which works on a {@link SearchBoard}.
+     *
+     * @return A new generator.
+     */
+    public static Generator searchBoardGenerator() {
+        return new SearchBoardGenerator();
+    }
+
+    /**
+     * Counts the leaves of a game to a depth, with the move generation of GameLogic.
+     * The moves are played with {@link GameLogic#makeMove(int, int)}, so the game is back in its position afterwards.
+     *
+     * @param game  The game.
+     * @param depth The depth, at most the largest depth of this counter.
+     * @return The number of positions reached after exactly that many moves.
+     */
+    public long count(GameLogic game, int depth) {
+        return count(game, depth, 0);
+    }
+
+    /**
+     * Counts the leaves of a generator's position to a depth. The generator is back in its position afterwards.
+     *
+     * @param generator The generator, loaded with the position.
+     * @param depth     The depth, at most the largest depth of this counter.
+     * @return The number of positions reached after exactly that many moves.
+     */
+    public long count(Generator generator, int depth) {
+        return count(generator, depth, 0);
+    }
+
+    /**
+     * Walks the tree of a game and of a generator together and compares them at every node: the moves, and the flips
+     * of every empty square against {@link GameLogic#getFlips(Position)}. Stops at the first difference.
+     *
+     * @param game      The game. It is back in its position afterwards.
+     * @param generator The generator. It is loaded with the position of the game.
+     * @param depth     The depth to check to, at most the largest depth of this counter.
+     * @return A description of the first node where they differ, or null if they agree everywhere.
+     */
+    public String check(GameLogic game, Generator generator, int depth) {
+        generator.load(game);
+        checkedNodes = 0;
+        return check(game, generator, depth, 0);
+    }
+
+    /**
+     * Returns the number of nodes compared by the last check, up to the divergence if there was one.
+     *
+     * @return The number of nodes.
+     */
+    public long checkedNodes() {
+        return checkedNodes;
+    }
+
+    /**
+     * Counts the leaves below a node of a game.
+     *
+     * @param game  The game, at the node.
+     * @param depth The remaining depth.
+     * @param ply   The distance of the node from the root.
+     * @return The number of leaves.
+     */
+    private long count(GameLogic game, int depth, int ply) {
+        if (depth == 0) return 1;
+        MoveList list = lists[ply];
+        int count = game.generateMoves(list);
+        int kinds = 1 + (game.isBomb0() ? 0 : 1) + (game.isUnflip0() ? 0 : 1);
+        if (depth == 1) return (long) count * kinds; // Every move of the last ply is a leaf
+
+        long leaves = 0;
+        for (int i = 0; i < count; i++) {
+            int square = list.square(i);
+            for (int kind = BitBoards.SIMPLE; kind <= BitBoards.UNFLIPPABLE; kind++) {
+                if (game.makeMove(square, kind)) {
+                    leaves += count(game, depth - 1, ply + 1);
+                    game.unmakeMove();
+                }
+            }
+        }
+        return leaves;
+    }
+
+    /**
+     * Counts the leaves below a node of a generator.
+     *
+     * @param generator The generator, at the node.
+     * @param depth     The remaining depth.
+     * @param ply       The distance of the node from the root.
+     * @return The number of leaves.
+     */
+    private long count(Generator generator, int depth, int ply) {
+        if (depth == 0) return 1;
+        int[] buffer = moves[ply];
+        int count = generator.generateMoves(buffer);
+        if (depth == 1) return count;
+
+        long leaves = 0;
+        for (int i = 0; i < count; i++) {
+            generator.makeMove(buffer[i]);
+            leaves += count(generator, depth - 1, ply + 1);
+            generator.unmakeMove();
+        }
+        return leaves;
+    }
+
+    /**
+     * Compares a node of a game and of a generator, and then the nodes below it.
+     *
+     * @param game      The game, at the node.
+     * @param generator The generator, at the same node.
+     * @param depth     The remaining depth.
+     * @param ply       The distance of the node from the root.
+     * @return A description of the first node where they differ, or null if they agree everywhere below.
+     */
+    private String check(GameLogic game, Generator generator, int depth, int ply) {
+        checkedNodes++;
+
+        // The moves of the generator, as one mask of squares per disc kind
+        int[] buffer = moves[ply];
+        int count = generator.generateMoves(buffer);
+        long[] generated = new long[3];
+        for (int i = 0; i < count; i++) {
+            generated[SearchBoard.kindOf(buffer[i])] |= 1L << SearchBoard.squareOf(buffer[i]);
+        }
+
+        // The reference: every empty square where GameLogic.getFlips flips something
+        long legal = 0;
+        for (int square = 0; square < 64; square++) {
+            Position position = PositionSet.positionOf(square);
+            if (game.getDiscAtPosition(position) != null) continue;
+            long expected = game.getFlips(position).bits();
+            long actual = generator.flips(square);
+            if (expected != actual) {
+                return describe(ply, "flips of " + position + ": expected " + new PositionSet(expected)
+                        + ", generated " + new PositionSet(actual));
+            }
+            if (expected != 0) legal |= 1L << square;
+        }
+        long[] expected = {legal, game.isBomb0() ? 0 : legal, game.isUnflip0() ? 0 : legal};
+        for (int kind = BitBoards.SIMPLE; kind <= BitBoards.UNFLIPPABLE; kind++) {
+            if (expected[kind] != generated[kind]) {
+                return describe(ply, kindNames[kind] + " moves: expected " + new PositionSet(expected[kind])
+                        + ", generated " + new PositionSet(generated[kind]));
+            }
+        }
+        if (depth == 0) return null;
+
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            path[ply] = move;
+            game.makeMove(SearchBoard.squareOf(move), SearchBoard.kindOf(move));
+            generator.makeMove(move);
+            String divergence = check(game, generator, depth - 1, ply + 1);
+            generator.unmakeMove();
+            game.unmakeMove();
+            if (divergence != null) return divergence;
+        }
+        return null;
+    }
+
+    /**
+     * Describes a divergence with the moves that lead to it.
+     *
+     * @param ply     The distance of the node from the root.
+     * @param problem What differs at the node.
+     * @return The description.
+     */
+    private String describe(int ply, String problem) {
+        StringBuilder text = new StringBuilder("after [");
+        for (int i = 0; i < ply; i++) {
+            if (i > 0) text.append(", ");
+            text.append(PositionSet.positionOf(SearchBoard.squareOf(path[i])))
+                    .append(' ').append(kindNames[SearchBoard.kindOf(path[i])]);
+        }
+        return text.append("]: ").append(problem).toString();
+    }
+
+    /**
+     * Counts, and optionally checks, from the start position or a recorded game.
+     *
+     * @param args The options, see the class documentation.
+     * @throws IOException if the record file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        int depth = defaultDepth;
+        boolean check = false;
+        String recordFile = null;
+        int gameIndex = 0;
+        int ply = Integer.MAX_VALUE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-check":
+                    check = true;
+                    break;
+                case "-record":
+                    recordFile = args[++i];
+                    break;
+                case "-game":
+                    gameIndex = Integer.parseInt(args[++i]);
+                    break;
+                case "-ply":
+                    ply = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        GameLogic game = new GameLogic();
+        game.setGameEventListener(GameEventListener.NONE);
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        game.reset();
+        if (recordFile != null) {
+            try (GameRecordReader reader = new GameRecordReader(Paths.get(recordFile))) {
+                for (int i = 0; i < gameIndex && reader.hasNext(); i++) reader.next();
+                if (!reader.hasNext()) {
+                    throw new IllegalArgumentException("No game " + gameIndex + " in " + recordFile);
+                }
+                GameRecord record = reader.next();
+                int plies = Math.min(ply, record.moveCount());
+                record.replay(game, plies);
+                System.out.println("Game " + gameIndex + " of " + recordFile + " after " + plies + " moves");
+            }
+        }
+
+        Perft perft = new Perft(depth);
+        Generator generator = searchBoardGenerator();
+        generator.load(game);
+        System.out.println("depth           leaves   GameLogic nodes/s  SearchBoard nodes/s");
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long leaves = perft.count(game, d);
+            double gameSeconds = (System.nanoTime() - start) / 1e9;
+            start = System.nanoTime();
+            long generated = perft.count(generator, d);
+            double boardSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%5d %16d %19.0f %20.0f%s%n", d, leaves, leaves / gameSeconds, generated / boardSeconds,
+                    generated == leaves ? "" : "  SearchBoard counts " + generated);
+        }
+
+        if (check) {
+            long start = System.nanoTime();
+            String divergence = perft.check(game, generator, depth);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (divergence == null) {
+                System.out.printf("Check passed: %d nodes in %.1f s%n", perft.checkedNodes(), seconds);
+            } else {
+                System.out.println("Check failed after " + perft.checkedNodes() + " nodes, " + divergence);
+            }
+        }
+    }
+}
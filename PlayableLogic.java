@@ -46,6 +46,15 @@ public interface PlayableLogic {
      */
     int countFlips(Position a);
 
+    /**
+     * Fill a buffer with every valid move of the current player, together with the discs each move flips,
+     * computing all of them in a single pass over the board.
+     *
+     * @param moves The buffer to fill. Its previous content is discarded.
+     * @return The number of valid moves.
+     */
+    int generateMoves(MoveList moves);
+
     /**
      * Get the first player.
      *
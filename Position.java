@@ -1,5 +1,3 @@
-import java.util.Objects;
-
 /**
  * Represents a position on a 2D grid (e.g., a board game grid).
  * The position is specified by a row and a column, where both row and column are integers
@@ -56,13 +54,13 @@ public class Position {
 
     /**
      * Returns the hash code of this position.
-     * The hash code is computed using both the row and column indices.
+     * The hash code is computed using both the row and column indices, without boxing them.
      *
      * @return The hash code for this position.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(col, row); // Generate hash code based on row and column
+        return 31 * col + row; // Generate hash code based on row and column
     }
 
     /**
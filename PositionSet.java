@@ -0,0 +1,233 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a set of positions on the 8x8 board, stored as the bits of a single long.
+ * The position (row, col) is kept in bit row * 8 + col, so adding, removing, checking and counting
+ * positions never allocates memory, unlike a HashSet of Position objects.
+ */
+public final class PositionSet implements Iterable<Position> {
+
+    private static final int boardSize = 8;
+
+    // One shared Position per square, handed out when iterating over a set
+    private static final Position[] positions = new Position[boardSize * boardSize];
+
+    static {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new Position(i / boardSize, i % boardSize);
+        }
+    }
+
+    private long bits; // Bit i is set when the position with index i is in the set
+
+    /**
+     * Constructs an empty set of positions.
+     */
+    public PositionSet() {
+    }
+
+    /**
+     * Constructs a set of positions from a mask of squares.
+     *
+     * @param bits The mask, where bit row * 8 + col stands for the position (row, col).
+     */
+    public PositionSet(long bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Returns the shared Position object of a square.
+     *
+     * @param index The square index (row * 8 + col).
+     * @return The position of the square.
+     */
+    public static Position positionOf(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Adds a position to the set.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return true if the position was not already in the set.
+     */
+    public boolean add(int row, int col) {
+        long bit = 1L << (row * boardSize + col);
+        boolean added = (bits & bit) == 0;
+        bits |= bit;
+        return added;
+    }
+
+    /**
+     * Adds a position to the set.
+     *
+     * @param position The position to add.
+     * @return true if the position was not already in the set.
+     */
+    public boolean add(Position position) {
+        return add(position.row(), position.col());
+    }
+
+    /**
+     * Adds all the positions of another set to this set.
+     *
+     * @param other The set whose positions are added.
+     */
+    public void addAll(PositionSet other) {
+        bits |= other.bits;
+    }
+
+    /**
+     * Adds all the positions of a mask of squares to this set.
+     *
+     * @param mask The mask, where bit row * 8 + col stands for the position (row, col).
+     */
+    public void addAll(long mask) {
+        bits |= mask;
+    }
+
+    /**
+     * Removes a position from the set.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return true if the position was in the set.
+     */
+    public boolean remove(int row, int col) {
+        long bit = 1L << (row * boardSize + col);
+        boolean removed = (bits & bit) != 0;
+        bits &= ~bit;
+        return removed;
+    }
+
+    /**
+     * Removes a position from the set.
+     *
+     * @param position The position to remove.
+     * @return true if the position was in the set.
+     */
+    public boolean remove(Position position) {
+        return remove(position.row(), position.col());
+    }
+
+    /**
+     * Checks if a position is in the set.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return true if the position is in the set, false otherwise.
+     */
+    public boolean contains(int row, int col) {
+        return (bits & 1L << (row * boardSize + col)) != 0;
+    }
+
+    /**
+     * Checks if a position is in the set.
+     *
+     * @param position The position to check.
+     * @return true if the position is in the set, false otherwise.
+     */
+    public boolean contains(Position position) {
+        return contains(position.row(), position.col());
+    }
+
+    /**
+     * Returns the number of positions in the set.
+     *
+     * @return The size of the set.
+     */
+    public int size() {
+        return Long.bitCount(bits);
+    }
+
+    /**
+     * Checks if the set is empty.
+     *
+     * @return true if the set holds no positions, false otherwise.
+     */
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    /**
+     * Removes every position from the set.
+     */
+    public void clear() {
+        bits = 0;
+    }
+
+    /**
+     * Returns the set as a mask of squares.
+     *
+     * @return The mask, where bit row * 8 + col stands for the position (row, col).
+     */
+    public long bits() {
+        return bits;
+    }
+
+    /**
+     * Returns an iterator over the positions of the set, in row by row order.
+     * Changes made to the set while iterating are not seen by the iterator.
+     *
+     * @return An iterator over the positions.
+     */
+    @Override
+    public Iterator<Position> iterator() {
+        return new Iterator<>() {
+            private long remaining = bits;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            @Override
+            public Position next() {
+                if (remaining == 0) throw new NoSuchElementException();
+                int index = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return positions[index];
+            }
+        };
+    }
+
+    /**
+     * Compares this set to another object for equality.
+     *
+     * @param obj The object to compare this set to.
+     * @return true if the object is a PositionSet holding the same positions.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof PositionSet)) return false;
+        return bits == ((PositionSet) obj).bits;
+    }
+
+    /**
+     * Returns the hash code of this set, based on its mask.
+     *
+     * @return The hash code for this set.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    /**
+     * Returns a string representation of the set, listing its positions.
+     *
+     * @return A string in the form of "[row,column, row,column, ...]".
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Position pos : this) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(pos);
+        }
+        return sb.append(']').toString();
+    }
+}
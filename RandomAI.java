@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -19,6 +18,8 @@ public class RandomAI extends AIPlayer {
         super(isPlayerOne);
     }
 
+    private final MoveList moves = new MoveList(); // Reused between turns
+
     /**
      * Randomly selects a disc type based on the available options (BombDisc, UnflippableDisc, or SimpleDisc).
      * The disc type is chosen based on the availability of certain discs and a random selection.
@@ -60,19 +61,27 @@ public class RandomAI extends AIPlayer {
      * @param gameStatus The current game state, used to retrieve valid moves and the status of the game.
      * @return A Move object representing the randomly selected move. The move includes a randomly selected position
      * and disc type.
+     * @throws IllegalStateException If no valid moves are available, indicating that the AI cannot
+     *                               make a move.
      */
     @Override
     public Move makeMove(PlayableLogic gameStatus) {
-        // Get a list of valid moves from the game state
-        List<Position> moves = gameStatus.ValidMoves();
+        long start = System.nanoTime();
+        // Get the valid moves from the game state
+        int count = gameStatus.generateMoves(moves);
+        if (count == 0) {
+            throw new IllegalStateException("No valid moves available");
+        }
 
         // Randomly select a valid move
-        int randomIndex = (int) (Math.random() * moves.size());  // Select a random index from the list of valid moves
+        int randomIndex = (int) (Math.random() * count);  // Select a random index from the list of valid moves
 
         // Select a random disc type to place for the move
         Disc randDisc = randDisc(gameStatus);
 
         // Return a new Move object with the randomly selected position and disc
-        return new Move(moves.get(randomIndex), randDisc);
+        Move move = new Move(moves.position(randomIndex), randDisc);
+        metrics.moveMade(System.nanoTime() - start, 0);
+        return move;
     }
 }
@@ -0,0 +1,379 @@
+/**
+ * A compact, silent copy of a game position used by the search-based AI players.
+ * The board is stored as 64-bit masks (see {@link BitBoards}), together with the side to move, the number of bombs and
+ * unflippable discs each player has left, and the Zobrist hash of the whole state (see {@link Zobrist}).
+ * Moves can be made and unmade any number of times without allocating objects or touching the real game.
+ *
+ * A move is encoded as a single int: the square index (row * 8 + col) in the low 6 bits, and the kind of the placed disc
+ * (BitBoards.SIMPLE, BitBoards.BOMB or BitBoards.UNFLIPPABLE) above them.
+ * As in the real game, the game is over when the player to move has no valid move.
+ */
+public final class SearchBoard {
+
+    /**
+     * The largest number of moves a position can have: every square with every kind of disc.
+     */
+    public static final int maxMoves = 64 * 3;
+
+    private static final int maxPly = 64;
+
+    private final long[] discs = new long[2]; // discs[0] holds the first player's discs, discs[1] the second player's
+    private long bombs;                       // All bomb discs, regardless of owner
+    private long unflippables;                // All unflippable discs, regardless of owner
+    private int side;                         // 0 when it's the first player's turn, 1 otherwise
+    private final int[] bombsLeft = new int[2];
+    private final int[] unflippablesLeft = new int[2];
+    private long boardHash;                   // Zobrist hash of the discs on the board
+
+    // Undo history: the flipped discs and the encoded move of every move made
+    private final long[] historyFlips = new long[maxPly];
+    private final int[] historyMoves = new int[maxPly];
+    private int historySize;
+
+    /**
+     * Encodes a move as an int.
+     *
+     * @param square The square of the placed disc (row * 8 + col).
+     * @param kind   The kind of the placed disc.
+     * @return The encoded move.
+     */
+    public static int move(int square, int kind) {
+        return square | kind << 6;
+    }
+
+    /**
+     * Returns the square of an encoded move.
+     *
+     * @param move The encoded move.
+     * @return The square index (row * 8 + col).
+     */
+    public static int squareOf(int move) {
+        return move & 63;
+    }
+
+    /**
+     * Returns the kind of the disc placed by an encoded move.
+     *
+     * @param move The encoded move.
+     * @return BitBoards.SIMPLE, BitBoards.BOMB or BitBoards.UNFLIPPABLE.
+     */
+    public static int kindOf(int move) {
+        return move >>> 6;
+    }
+
+    /**
+     * Turns an encoded move into a Move that can be played on a PlayableLogic.
+     *
+     * @param move  The encoded move.
+     * @param owner The player placing the disc.
+     * @return The move, with a new disc of the right kind.
+     */
+    public static Move toMove(int move, Player owner) {
+        Disc disc;
+        switch (kindOf(move)) {
+            case BitBoards.BOMB:
+                disc = new BombDisc(owner);
+                break;
+            case BitBoards.UNFLIPPABLE:
+                disc = new UnflippableDisc(owner);
+                break;
+            default:
+                disc = new SimpleDisc(owner);
+        }
+        return new Move(PositionSet.positionOf(squareOf(move)), disc);
+    }
+
+    /**
+     * Copies the position of a game into this board and clears the undo history.
+     * A GameLogic keeps the hash of its discs up to date, so it is taken over instead of hashing every disc again.
+     *
+     * @param game The game to copy. It is only read.
+     */
+    public void load(PlayableLogic game) {
+        discs[0] = 0;
+        discs[1] = 0;
+        bombs = 0;
+        unflippables = 0;
+        boolean hashed = game instanceof GameLogic;
+        boardHash = hashed ? ((GameLogic) game).getBoardHash() : 0;
+        for (int square = 0; square < 64; square++) {
+            Disc disc = game.getDiscAtPosition(PositionSet.positionOf(square));
+            if (disc == null) continue;
+            long bit = 1L << square;
+            int owner = disc.getOwner().isPlayerOne() ? 0 : 1;
+            int kind = BitBoards.kindOf(disc);
+            discs[owner] |= bit;
+            if (kind == BitBoards.BOMB) bombs |= bit;
+            else if (kind == BitBoards.UNFLIPPABLE) unflippables |= bit;
+            if (!hashed) boardHash ^= Zobrist.disc(square, owner, kind);
+        }
+        side = game.isFirstPlayerTurn() ? 0 : 1;
+        bombsLeft[0] = game.getFirstPlayer().getNumber_of_bombs();
+        bombsLeft[1] = game.getSecondPlayer().getNumber_of_bombs();
+        unflippablesLeft[0] = game.getFirstPlayer().getNumber_of_unflippedable();
+        unflippablesLeft[1] = game.getSecondPlayer().getNumber_of_unflippedable();
+        historySize = 0;
+    }
+
+    /**
+     * Copies the position of another board into this board and clears the undo history.
+     *
+     * @param other The board to copy.
+     */
+    public void copyFrom(SearchBoard other) {
+        discs[0] = other.discs[0];
+        discs[1] = other.discs[1];
+        bombs = other.bombs;
+        unflippables = other.unflippables;
+        side = other.side;
+        bombsLeft[0] = other.bombsLeft[0];
+        bombsLeft[1] = other.bombsLeft[1];
+        unflippablesLeft[0] = other.unflippablesLeft[0];
+        unflippablesLeft[1] = other.unflippablesLeft[1];
+        boardHash = other.boardHash;
+        historySize = 0;
+    }
+
+    /**
+     * Returns the legal squares of the player to move.
+     *
+     * @return A mask of the squares where the current player can place a disc.
+     */
+    public long legalMoves() {
+        return BitBoards.legalMoves(discs[side], discs[side ^ 1], unflippables);
+    }
+
+    /**
+     * Returns the legal squares of the player who is not to move.
+     *
+     * @return A mask of the squares where the opponent could place a disc.
+     */
+    public long opponentLegalMoves() {
+        return BitBoards.legalMoves(discs[side ^ 1], discs[side], unflippables);
+    }
+
+    /**
+     * Fills a buffer with every move of the player to move: a simple disc on every legal square, and a bomb or an
+     * unflippable disc on the same square while the player has some left.
+     *
+     * @param legal The legal squares, as returned by {@link #legalMoves()}.
+     * @param moves The buffer to fill, of at least {@link #maxMoves} entries.
+     * @return The number of moves written to the buffer.
+     */
+    public int generateMoves(long legal, int[] moves) {
+        int count = 0;
+        boolean bomb = bombsLeft[side] > 0;
+        boolean unflippable = unflippablesLeft[side] > 0;
+        for (; legal != 0; legal &= legal - 1) {
+            int square = Long.numberOfTrailingZeros(legal);
+            moves[count++] = move(square, BitBoards.SIMPLE);
+            if (bomb) moves[count++] = move(square, BitBoards.BOMB);
+            if (unflippable) moves[count++] = move(square, BitBoards.UNFLIPPABLE);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if an encoded move can be played by the player to move: its square is legal, and the player still has
+     * a disc of its kind. Used to check moves that come from outside the search, such as opening book moves.
+     *
+     * @param move The encoded move.
+     * @return true if the move is legal, false otherwise.
+     */
+    public boolean isLegal(int move) {
+        if (move < 0 || move >= 64 * 3) return false;
+        int kind = kindOf(move);
+        if (kind == BitBoards.BOMB && bombsLeft[side] == 0
+                || kind == BitBoards.UNFLIPPABLE && unflippablesLeft[side] == 0) return false;
+        return (legalMoves() & 1L << squareOf(move)) != 0;
+    }
+
+    /**
+     * Computes the discs flipped by a disc of the player to move on a square.
+     * The kind of the placed disc never changes its flips.
+     *
+     * @param square The square of the placed disc.
+     * @return A mask of the flipped discs, empty if the square is not legal.
+     */
+    public long flips(int square) {
+        return BitBoards.flips(square, discs[side], discs[side ^ 1], unflippables, bombs);
+    }
+
+    /**
+     * Makes a legal move for the player to move and passes the turn.
+     *
+     * @param move The encoded move.
+     */
+    public void makeMove(int move) {
+        makeMove(move, flips(squareOf(move)));
+    }
+
+    /**
+     * Makes a legal move whose flips are already known, and passes the turn.
+     *
+     * @param move  The encoded move.
+     * @param flips The discs flipped by the move, as returned by {@link #flips(int)}.
+     */
+    public void makeMove(int move, long flips) {
+        int square = squareOf(move);
+        int kind = kindOf(move);
+        long bit = 1L << square;
+        discs[side] |= bit | flips;
+        discs[side ^ 1] &= ~flips;
+        if (kind == BitBoards.BOMB) {
+            bombs |= bit;
+            bombsLeft[side]--;
+        } else if (kind == BitBoards.UNFLIPPABLE) {
+            unflippables |= bit;
+            unflippablesLeft[side]--;
+        }
+        boardHash ^= Zobrist.disc(square, side, kind) ^ flipKeys(flips);
+
+        historyFlips[historySize] = flips;
+        historyMoves[historySize] = move;
+        historySize++;
+        side ^= 1;
+    }
+
+    /**
+     * Unmakes the last move made with {@link #makeMove(int, long)} and gives the turn back.
+     */
+    public void unmakeMove() {
+        historySize--;
+        long flips = historyFlips[historySize];
+        int move = historyMoves[historySize];
+        int square = squareOf(move);
+        int kind = kindOf(move);
+        long bit = 1L << square;
+
+        side ^= 1;
+        discs[side] &= ~(bit | flips);
+        discs[side ^ 1] |= flips;
+        if (kind == BitBoards.BOMB) {
+            bombs &= ~bit;
+            bombsLeft[side]++;
+        } else if (kind == BitBoards.UNFLIPPABLE) {
+            unflippables &= ~bit;
+            unflippablesLeft[side]++;
+        }
+        boardHash ^= Zobrist.disc(square, side, kind) ^ flipKeys(flips);
+    }
+
+    /**
+     * Returns the XOR of the keys that change when the given discs switch owner.
+     * Flipped discs are never unflippable, so each one is either a simple disc or a bomb.
+     *
+     * @param flips The flipped discs.
+     * @return The combined keys of every flipped disc under both owners.
+     */
+    private long flipKeys(long flips) {
+        long keys = 0;
+        for (; flips != 0; flips &= flips - 1) {
+            int square = Long.numberOfTrailingZeros(flips);
+            int kind = (bombs & 1L << square) != 0 ? BitBoards.BOMB : BitBoards.SIMPLE;
+            keys ^= Zobrist.disc(square, 0, kind) ^ Zobrist.disc(square, 1, kind);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position. It is equal to {@link GameLogic#getHash()} for the same game state.
+     *
+     * @return The 64-bit hash.
+     */
+    public long hash() {
+        return boardHash ^ Zobrist.state(side == 0, bombsLeft[0], unflippablesLeft[0], bombsLeft[1], unflippablesLeft[1]);
+    }
+
+    /**
+     * Returns the discs of the player to move.
+     *
+     * @return A mask of the discs.
+     */
+    public long own() {
+        return discs[side];
+    }
+
+    /**
+     * Returns the discs of the player who is not to move.
+     *
+     * @return A mask of the discs.
+     */
+    public long opponent() {
+        return discs[side ^ 1];
+    }
+
+    /**
+     * Returns all the bomb discs on the board.
+     *
+     * @return A mask of the bomb discs.
+     */
+    public long bombs() {
+        return bombs;
+    }
+
+    /**
+     * Returns all the unflippable discs on the board.
+     *
+     * @return A mask of the unflippable discs.
+     */
+    public long unflippables() {
+        return unflippables;
+    }
+
+    /**
+     * Returns the empty squares of the board.
+     *
+     * @return A mask of the empty squares.
+     */
+    public long empty() {
+        return ~(discs[0] | discs[1]);
+    }
+
+    /**
+     * Checks if it's the first player's turn.
+     *
+     * @return true if it's the first player's turn, false otherwise.
+     */
+    public boolean isFirstPlayerTurn() {
+        return side == 0;
+    }
+
+    /**
+     * Returns the number of bombs a player has left.
+     *
+     * @param own true for the player to move, false for the opponent.
+     * @return The number of bombs left.
+     */
+    public int bombsLeft(boolean own) {
+        return bombsLeft[own ? side : side ^ 1];
+    }
+
+    /**
+     * Returns the number of unflippable discs a player has left.
+     *
+     * @param own true for the player to move, false for the opponent.
+     * @return The number of unflippable discs left.
+     */
+    public int unflippablesLeft(boolean own) {
+        return unflippablesLeft[own ? side : side ^ 1];
+    }
+
+    /**
+     * Returns the number of moves made since the board was loaded.
+     *
+     * @return The number of moves that can be unmade.
+     */
+    public int ply() {
+        return historySize;
+    }
+
+    /**
+     * Returns the disc difference from the point of view of the player to move.
+     *
+     * @return The number of own discs minus the number of opponent discs.
+     */
+    public int discDifference() {
+        return Long.bitCount(discs[side]) - Long.bitCount(discs[side ^ 1]);
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Finds the stable discs of a position: discs that can never be flipped again, whatever both players do.
+ * It works on whole masks with directional shifts (see {@link BitBoards}), so it is cheap enough to run at every node
+ * of a search.
+ *
+ * A disc is stable when it can be flipped neither along a line nor by a bomb:
+ * - An unflippable disc is always stable.
+ * - Along each of the 4 lines through it (row, column and both diagonals), the disc needs one neighbour that
+ *   protects it: the edge of the board, or a stable flippable disc of the same owner, or else the whole line must be
+ *   full, so that no disc can be placed on it. An unflippable neighbour of the same owner does not protect it, since
+ *   the opponent's lines skip over it.
+ * - None of its neighbours may be a bomb, unless it is a stable bomb of the same owner: a bomb flips the discs
+ *   around it when it is flipped, and an opponent bomb can be flipped to the owner's side and then flipped back.
+ *   While any player still has a bomb in hand, an empty neighbour is as dangerous, since a bomb may be placed there.
+ * The stable discs are found from the outside in, until no more disc can be added. The result may miss some stable
+ * discs, but never holds a disc that can still be flipped.
+ */
+public final class Stability {
+
+    private static final long NOT_COL_0 = 0xFEFEFEFEFEFEFEFEL; // Every square except the left column
+    private static final long NOT_COL_7 = 0x7F7F7F7F7F7F7F7FL; // Every square except the right column
+    private static final long COLS_0_7 = 0x8181818181818181L;
+    private static final long ROWS_0_7 = 0xFF000000000000FFL;
+
+    // The 4 lines as shift amounts: row, column, diagonal and anti-diagonal, with the masks that remove squares that
+    // wrapped around a row after shifting up (<<) or down (>>>) by that amount
+    private static final int[] AXES = {1, 8, 9, 7};
+    private static final long[] UP_MASKS = {NOT_COL_0, -1L, NOT_COL_0, NOT_COL_7};
+    private static final long[] DOWN_MASKS = {NOT_COL_7, -1L, NOT_COL_7, NOT_COL_0};
+    private static final long[] EDGES = {COLS_0_7, ROWS_0_7, COLS_0_7 | ROWS_0_7, COLS_0_7 | ROWS_0_7};
+
+    private Stability() {
+    }
+
+    /**
+     * Finds the stable discs of one player.
+     *
+     * @param own          The discs of the player.
+     * @param opp          The discs of the other player.
+     * @param bombs        All the bomb discs, regardless of owner.
+     * @param unflippables All the unflippable discs, regardless of owner.
+     * @param bombsInHand  true if any player still has a bomb to place.
+     * @return A mask of the stable discs of the player.
+     */
+    public static long stableDiscs(long own, long opp, long bombs, long unflippables, boolean bombsInHand) {
+        long empty = ~(own | opp);
+        long flippable = own & ~unflippables;
+        if (flippable == 0) return own;
+        long futureBombs = bombsInHand ? empty : 0;
+
+        // Along each line, a disc on the edge or on a full line can never be flanked
+        long safeRow = EDGES[0] | ~lineFill(empty, 0);
+        long safeColumn = EDGES[1] | ~lineFill(empty, 1);
+        long safeDiagonal = EDGES[2] | ~lineFill(empty, 2);
+        long safeAntiDiagonal = EDGES[3] | ~lineFill(empty, 3);
+        long stable = 0;
+        while (true) {
+            long next = flippable & ~neighbours(bombs & ~stable | futureBombs)
+                    & (safeRow | adjacent(stable, 0))
+                    & (safeColumn | adjacent(stable, 1))
+                    & (safeDiagonal | adjacent(stable, 2))
+                    & (safeAntiDiagonal | adjacent(stable, 3));
+            if (next == stable) break;
+            stable = next;
+        }
+        return stable | own & unflippables;
+    }
+
+    /**
+     * Finds the stable discs of one player of a search position.
+     *
+     * @param board The position.
+     * @param own   true for the player to move, false for the opponent.
+     * @return A mask of the stable discs of the player.
+     */
+    public static long stableDiscs(SearchBoard board, boolean own) {
+        long mine = own ? board.own() : board.opponent();
+        long theirs = own ? board.opponent() : board.own();
+        boolean bombsInHand = board.bombsLeft(true) + board.bombsLeft(false) > 0;
+        return stableDiscs(mine, theirs, board.bombs(), board.unflippables(), bombsInHand);
+    }
+
+    /**
+     * Finds the stable discs of one player of a game.
+     *
+     * @param game        The game. It is only read.
+     * @param firstPlayer true for the first player, false for the second player.
+     * @return A mask of the stable discs of the player, with the square (row, col) in bit row * 8 + col.
+     */
+    public static long stableDiscs(PlayableLogic game, boolean firstPlayer) {
+        SearchBoard board = new SearchBoard();
+        board.load(game);
+        return stableDiscs(board, board.isFirstPlayerTurn() == firstPlayer);
+    }
+
+    /**
+     * Spreads a set of squares along a line, in both directions, up to the edges of the board.
+     *
+     * @param squares The squares to spread.
+     * @param axis    The index of the line in AXES.
+     * @return The squares on the same line as any of the given squares.
+     */
+    private static long lineFill(long squares, int axis) {
+        int amount = AXES[axis];
+        long up = squares;
+        long down = squares;
+        long upMask = UP_MASKS[axis];
+        long downMask = DOWN_MASKS[axis];
+        // Kogge-Stone fill: each step doubles the distance covered, and the masks shrink so that nothing wraps around
+        for (int shift = amount; shift <= amount * 4; shift <<= 1) {
+            up |= (up << shift) & upMask;
+            down |= (down >>> shift) & downMask;
+            upMask &= upMask << shift;
+            downMask &= downMask >>> shift;
+        }
+        return up | down;
+    }
+
+    /**
+     * Returns the squares next to a set of squares along a line, on either side.
+     *
+     * @param squares The squares.
+     * @param axis    The index of the line in AXES.
+     * @return The neighbouring squares along the line.
+     */
+    private static long adjacent(long squares, int axis) {
+        int amount = AXES[axis];
+        return (squares << amount) & UP_MASKS[axis] | (squares >>> amount) & DOWN_MASKS[axis];
+    }
+
+    /**
+     * Returns the squares next to a set of squares in any of the 8 directions, without the squares themselves unless
+     * they are next to each other.
+     *
+     * @param squares The squares.
+     * @return The neighbouring squares.
+     */
+    private static long neighbours(long squares) {
+        long sides = (squares << 1) & NOT_COL_0 | (squares >>> 1) & NOT_COL_7;
+        long row = sides | squares;
+        return sides | row << 8 | row >>> 8;
+    }
+}
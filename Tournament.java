@@ -0,0 +1,366 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A headless tournament between registered AI players (see {@link AIPlayer#getAIPlayerTypes()}).
+ * Every pair of players meets in a match of several games with colours swapped every game. The games run in
+ * parallel on a ForkJoinPool, one game per thread at a time, and every game has its own {@link GameLogic} and its own
+ * players, so games never share any state. Game events are not reported.
+ *
+ * Each pair of games of a match starts from the same random opening of a few simple discs, played once with each
+ * player moving first, so that deterministic players do not replay the same game over and over. The openings come
+ * from a seed, so a tournament can be replayed.
+ *
+ * A player that throws an exception or makes an invalid move loses the game by forfeit.
+ *
+ * The games can be saved to a file of {@link GameRecord}s, to be replayed or studied later.
+ *
+ * Usage: java Tournament [-games N] [-threads N] [-time MS] [-opening N] [-seed N] [-record FILE] [AI names...]
+ * - games:   the number of games of every match, 100 by default.
+ * - threads: the number of games played at once, one per available processor by default.
+ * - time:    the time budget per move of the players that have one, in milliseconds. Their default if not given.
+ * - opening: the number of random simple discs played before the players take over, 4 by default.
+ * - seed:    the seed of the random openings.
+ * - record:  the file the games are saved to, see {@link GameRecordWriter}. The games are not saved if not given.
+ * Without AI names, every registered AI plays.
+ */
+public class Tournament {
+
+    private static final int defaultGames = 100;
+    private static final int defaultOpening = 4;
+
+    private final List<String> players;
+    private final int games;
+    private final int threads;
+    private final int opening;
+    private final long seed;
+    private long timeBudget = -1; // -1 to leave the players' own time budget
+    private Path recordFile;      // null to not save the games
+
+    /**
+     * The result of one game.
+     */
+    private static final class GameResult {
+        private final int first;  // Index of the player who moved first
+        private final int second;
+        private final int margin; // Final disc difference for the first player
+        private final boolean forfeit;
+        private final GameRecord record; // null if the games are not saved
+
+        /**
+         * Constructs a game result.
+         *
+         * @param first   The index of the player who moved first.
+         * @param second  The index of the player who moved second.
+         * @param margin  The final disc difference for the first player.
+         * @param forfeit true if the game ended by forfeit.
+         * @param record  The record of the game, or null if the games are not saved.
+         */
+        private GameResult(int first, int second, int margin, boolean forfeit, GameRecord record) {
+            this.first = first;
+            this.second = second;
+            this.margin = margin;
+            this.forfeit = forfeit;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Constructs a tournament.
+     *
+     * @param players The names of the registered AI players taking part.
+     * @param games   The number of games of every match.
+     * @param threads The number of games played at once.
+     * @param opening The number of random simple discs played before the players take over.
+     * @param seed    The seed of the random openings.
+     * @throws IllegalArgumentException if fewer than 2 players are given, a player is not registered, or a count is
+     *                                  not valid.
+     */
+    public Tournament(List<String> players, int games, int threads, int opening, long seed) {
+        if (players.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least 2 players: " + players);
+        }
+        for (String player : players) {
+            if (!AIPlayer.getAIPlayerTypes().contains(player)) {
+                throw new IllegalArgumentException("Unknown AI player type: " + player);
+            }
+        }
+        if (games < 1 || threads < 1 || opening < 0) {
+            throw new IllegalArgumentException("Invalid games, threads or opening: " + games + ", " + threads + ", " + opening);
+        }
+        this.players = new ArrayList<>(players);
+        this.games = games;
+        this.threads = threads;
+        this.opening = opening;
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the time budget per move of the players that have one (AlphaBetaAI and MctsAI).
+     *
+     * @param timeBudget The time budget in milliseconds.
+     */
+    public void setTimeBudget(long timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Sets the file the games are saved to. It is written once every game has been played.
+     *
+     * @param recordFile The file, or null to not save the games.
+     */
+    public void setRecordFile(Path recordFile) {
+        this.recordFile = recordFile;
+    }
+
+    /**
+     * Plays every match and prints a report: the win/draw/loss record and average disc margin of every match and of
+     * every player, and the number of games played per second.
+     *
+     * @throws UncheckedIOException if the games cannot be saved.
+     */
+    public void run() {
+        List<Callable<GameResult>> tasks = new ArrayList<>();
+        for (int a = 0; a < players.size(); a++) {
+            for (int b = a + 1; b < players.size(); b++) {
+                for (int game = 0; game < games; game++) {
+                    // Both games of a pair share an opening, and every pair of every match gets its own
+                    long openingSeed = seed + (long) (a * players.size() + b) * games + game / 2;
+                    int first = game % 2 == 0 ? a : b;
+                    int second = game % 2 == 0 ? b : a;
+                    tasks.add(() -> play(first, second, openingSeed));
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        List<GameResult> results = new ArrayList<>(tasks.size());
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<GameResult> future : pool.invokeAll(tasks)) results.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game could not be played", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(results, seconds);
+        if (recordFile != null) save(results);
+    }
+
+    /**
+     * Plays one game between two new players on a new game.
+     *
+     * @param first       The index of the player who moves first.
+     * @param second      The index of the player who moves second.
+     * @param openingSeed The seed of the random opening.
+     * @return The result of the game.
+     */
+    private GameResult play(int first, int second, long openingSeed) {
+        AIPlayer firstPlayer = createPlayer(players.get(first), true);
+        AIPlayer secondPlayer = createPlayer(players.get(second), false);
+        try {
+            return play(first, second, firstPlayer, secondPlayer, openingSeed);
+        } finally {
+            // The players are dropped with the game, so stop their threads now
+            firstPlayer.close();
+            secondPlayer.close();
+        }
+    }
+
+    /**
+     * Plays one game between two players that are already created.
+     *
+     * @param first        The index of the player who moves first.
+     * @param second       The index of the player who moves second.
+     * @param firstPlayer  The player who moves first.
+     * @param secondPlayer The player who moves second.
+     * @param openingSeed  The seed of the random opening.
+     * @return The result of the game.
+     */
+    private GameResult play(int first, int second, AIPlayer firstPlayer, AIPlayer secondPlayer, long openingSeed) {
+        GameLogic game = new GameLogic();
+        game.setGameEventListener(GameEventListener.NONE);
+        game.setPlayers(firstPlayer, secondPlayer);
+        game.reset();
+
+        // Random opening, with simple discs only so that both players keep all their special discs
+        Random random = new Random(openingSeed);
+        MoveList moves = new MoveList();
+        for (int i = 0; i < opening && !game.isGameFinished(); i++) {
+            int count = game.generateMoves(moves);
+            Player player = game.isFirstPlayerTurn() ? firstPlayer : secondPlayer;
+            game.locate_disc(moves.position(random.nextInt(count)), new SimpleDisc(player));
+        }
+
+        while (!game.isGameFinished()) {
+            boolean firstToMove = game.isFirstPlayerTurn();
+            AIPlayer player = firstToMove ? firstPlayer : secondPlayer;
+            boolean valid;
+            try {
+                Move move = player.makeMove(game);
+                valid = game.locate_disc(move.position(), move.disc());
+            } catch (RuntimeException e) {
+                valid = false;
+            }
+            if (!valid) {
+                return new GameResult(first, second, firstToMove ? -64 : 64, true, record(game, first, second,
+                        firstToMove ? GameRecord.firstForfeit : GameRecord.secondForfeit));
+            }
+        }
+        int margin = game.countPlayerDiscs(firstPlayer) - game.countPlayerDiscs(secondPlayer);
+        return new GameResult(first, second, margin, false, record(game, first, second, GameRecord.noForfeit));
+    }
+
+    /**
+     * Creates the record of a game if the games are saved.
+     *
+     * @param game    The game.
+     * @param first   The index of the player who moved first.
+     * @param second  The index of the player who moved second.
+     * @param forfeit {@link GameRecord#noForfeit}, or which player forfeited the game.
+     * @return The record, or null if the games are not saved.
+     */
+    private GameRecord record(GameLogic game, int first, int second, int forfeit) {
+        return recordFile == null ? null : GameRecord.of(game, players.get(first), players.get(second), forfeit);
+    }
+
+    /**
+     * Saves the records of every game to the record file.
+     *
+     * @param results The results of every game.
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    private void save(List<GameResult> results) {
+        try (GameRecordWriter writer = new GameRecordWriter(recordFile)) {
+            for (GameResult result : results) writer.write(result.record);
+            System.out.println("Saved " + writer.count() + " games to " + recordFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a player, with the tournament's time budget, and searching on one thread when games run in parallel,
+     * so that the games do not compete for processors.
+     *
+     * @param name        The registered name of the player.
+     * @param isPlayerOne true if this is the first player, false for second player.
+     * @return The new player.
+     */
+    private AIPlayer createPlayer(String name, boolean isPlayerOne) {
+        AIPlayer player = AIPlayer.createAIPlayer(name, isPlayerOne);
+        if (player instanceof AlphaBetaAI) {
+            AlphaBetaAI ai = (AlphaBetaAI) player;
+            if (timeBudget >= 0) ai.setTimeBudget(timeBudget);
+            if (threads > 1) ai.setThreads(1);
+        } else if (player instanceof MctsAI) {
+            MctsAI ai = (MctsAI) player;
+            if (timeBudget >= 0) ai.setTimeBudget(timeBudget);
+            if (threads > 1) ai.setThreads(1);
+        }
+        return player;
+    }
+
+    /**
+     * Prints the results of the tournament.
+     *
+     * @param results The results of every game.
+     * @param seconds The time the games took.
+     */
+    private void report(List<GameResult> results, double seconds) {
+        int n = players.size();
+        int[][][] records = new int[n][n][3]; // Wins, draws and losses of a player against another
+        long[][] margins = new long[n][n];
+        int forfeits = 0;
+        for (GameResult result : results) {
+            int outcome = Integer.signum(result.margin); // For the first player
+            records[result.first][result.second][1 - outcome]++;
+            records[result.second][result.first][1 + outcome]++;
+            margins[result.first][result.second] += result.margin;
+            margins[result.second][result.first] -= result.margin;
+            if (result.forfeit) forfeits++;
+        }
+
+        System.out.println("Matches (W/D/L and average disc margin of the first named player):");
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                int[] record = records[a][b];
+                System.out.printf("  %-20s vs %-20s %5d/%d/%d  %+.2f%n", players.get(a), players.get(b),
+                        record[0], record[1], record[2], (double) margins[a][b] / games);
+            }
+        }
+        System.out.println("Players:");
+        for (int a = 0; a < n; a++) {
+            int[] total = new int[3];
+            long margin = 0;
+            for (int b = 0; b < n; b++) {
+                for (int i = 0; i < 3; i++) total[i] += records[a][b][i];
+                margin += margins[a][b];
+            }
+            System.out.printf("  %-20s %5d/%d/%d  %+.2f%n", players.get(a), total[0], total[1], total[2],
+                    (double) margin / (games * (n - 1)));
+        }
+        System.out.printf("%d games (%d forfeits) on %d threads in %.1f s: %.1f games per second%n",
+                results.size(), forfeits, threads, seconds, results.size() / seconds);
+    }
+
+    /**
+     * Runs a tournament from the command line.
+     *
+     * @param args The options and AI names, see the class documentation.
+     */
+    public static void main(String[] args) {
+        AIPlayer.registerAllAIPlayers();
+        int games = defaultGames;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int opening = defaultOpening;
+        long seed = System.nanoTime();
+        long timeBudget = -1;
+        Path recordFile = null;
+        List<String> players = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-time":
+                    timeBudget = Long.parseLong(args[++i]);
+                    break;
+                case "-opening":
+                    opening = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-record":
+                    recordFile = Paths.get(args[++i]);
+                    break;
+                default:
+                    players.add(args[i]);
+            }
+        }
+        if (players.isEmpty()) players = AIPlayer.getAIPlayerTypes();
+
+        System.out.println("Tournament: " + players + ", " + games + " games per match, seed " + seed);
+        Tournament tournament = new Tournament(players, games, threads, opening, seed);
+        tournament.setTimeBudget(timeBudget);
+        tournament.setRecordFile(recordFile);
+        tournament.run();
+    }
+}
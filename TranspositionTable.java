@@ -0,0 +1,144 @@
+/**
+ * A table of search results keyed by the Zobrist hash of a position (see {@link Zobrist}), so that a search can reuse
+ * what it, or another search thread, already found about a position reached through a different move order.
+ *
+ * Each result is packed into a single long, which keeps implementations free to store it in primitive arrays:
+ * the score in the low 32 bits, then the best move, the searched depth and the bound type.
+ * A packed result is never 0, so 0 is used for "no result".
+ */
+public interface TranspositionTable {
+
+    /**
+     * The score is exact.
+     */
+    int EXACT = 1;
+
+    /**
+     * The score is a lower bound: the search failed high and stopped early.
+     */
+    int LOWER = 2;
+
+    /**
+     * The score is an upper bound: no move reached the lower bound of the search window.
+     */
+    int UPPER = 3;
+
+    /**
+     * Looks up the result stored for a position.
+     *
+     * @param hash The hash of the position.
+     * @return The packed result, or 0 if there is none.
+     */
+    long probe(long hash);
+
+    /**
+     * Stores the result of a search. Implementations may keep an older result instead, or drop results to stay
+     * within their memory limit.
+     *
+     * @param hash  The hash of the position.
+     * @param depth The depth the position was searched to.
+     * @param bound EXACT, LOWER or UPPER.
+     * @param score The score of the position.
+     * @param move  The best move found, encoded as in {@link SearchBoard}, or -1 if there is none.
+     */
+    void store(long hash, int depth, int bound, int score, int move);
+
+    /**
+     * Removes every result from the table.
+     */
+    void clear();
+
+    /**
+     * Tells the table that a new search is starting. Tables with a replacement policy may then prefer to replace
+     * results of older searches. Does nothing by default.
+     */
+    default void newSearch() {
+    }
+
+    /**
+     * Returns the number of lookups since the table was created or its statistics were reset.
+     *
+     * @return The number of calls to probe, or 0 if the table does not count them.
+     */
+    default long probes() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of lookups that found a result.
+     *
+     * @return The number of successful calls to probe, or 0 if the table does not count them.
+     */
+    default long hits() {
+        return 0;
+    }
+
+    /**
+     * Returns the share of lookups that found a result.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    default double hitRate() {
+        long probes = probes();
+        return probes == 0 ? 0 : (double) hits() / probes;
+    }
+
+    /**
+     * Sets the lookup statistics back to 0. Does nothing by default.
+     */
+    default void resetStatistics() {
+    }
+
+    /**
+     * Packs a search result into a long.
+     *
+     * @param depth The searched depth, between 0 and 255.
+     * @param bound EXACT, LOWER or UPPER.
+     * @param score The score.
+     * @param move  The best move, or -1 if there is none.
+     * @return The packed result, never 0.
+     */
+    static long pack(int depth, int bound, int score, int move) {
+        return (score & 0xFFFFFFFFL) | (long) (move + 1) << 32 | (long) depth << 40 | (long) bound << 48;
+    }
+
+    /**
+     * Returns the score of a packed result.
+     *
+     * @param entry The packed result.
+     * @return The score.
+     */
+    static int score(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Returns the best move of a packed result.
+     *
+     * @param entry The packed result.
+     * @return The encoded move, or -1 if there is none.
+     */
+    static int move(long entry) {
+        return (int) (entry >>> 32 & 0xFF) - 1;
+    }
+
+    /**
+     * Returns the searched depth of a packed result.
+     *
+     * @param entry The packed result.
+     * @return The depth.
+     */
+    static int depth(long entry) {
+        return (int) (entry >>> 40 & 0xFF);
+    }
+
+    /**
+     * Returns the bound type of a packed result.
+     *
+     * @param entry The packed result.
+     * @return EXACT, LOWER or UPPER.
+     */
+    static int bound(long entry) {
+        return (int) (entry >>> 48 & 3);
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of a game state.
+ * A position is hashed by XOR-ing one key per disc (depending on its square, owner and kind), one key for the side
+ * to move, and one key per player for the number of bombs and unflippable discs they have left.
+ * Since XOR is its own inverse, a hash can be updated after a move by XOR-ing only the keys of the squares that changed.
+ *
+ * The keys come from a fixed seed, so the same position always has the same hash, in every run of the game.
+ */
+public final class Zobrist {
+    private static final long seed = 0x5DEECE66DL;
+
+    // DISCS[square][owner][kind], where owner is 0 for the first player and 1 for the second
+    private static final long[][][] DISCS = new long[64][2][3];
+    private static final long SECOND_PLAYER_TO_MOVE;
+    private static final long[][] BOMBS_LEFT = new long[2][Player.initial_number_of_bombs + 1];
+    private static final long[][] UNFLIPPABLES_LEFT = new long[2][Player.initial_number_of_unflippedable + 1];
+
+    static {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long[][] square : DISCS) {
+            for (long[] owner : square) {
+                for (int kind = 0; kind < owner.length; kind++) {
+                    owner[kind] = random.nextLong();
+                }
+            }
+        }
+        SECOND_PLAYER_TO_MOVE = random.nextLong();
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < BOMBS_LEFT[side].length; i++) BOMBS_LEFT[side][i] = random.nextLong();
+            for (int i = 0; i < UNFLIPPABLES_LEFT[side].length; i++) UNFLIPPABLES_LEFT[side][i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a disc.
+     *
+     * @param square The square of the disc (row * 8 + col).
+     * @param owner  0 if the disc belongs to the first player, 1 otherwise.
+     * @param kind   The kind of the disc (BitBoards.SIMPLE, BitBoards.BOMB or BitBoards.UNFLIPPABLE).
+     * @return The key of the disc.
+     */
+    public static long disc(int square, int owner, int kind) {
+        return DISCS[square][owner][kind];
+    }
+
+    /**
+     * Returns the key of the parts of the state that are not on the board: the side to move and the special discs left.
+     *
+     * @param firstPlayerToMove true if it's the first player's turn.
+     * @param bombs1            The number of bombs the first player has left.
+     * @param unflippables1     The number of unflippable discs the first player has left.
+     * @param bombs2            The number of bombs the second player has left.
+     * @param unflippables2     The number of unflippable discs the second player has left.
+     * @return The combined key.
+     */
+    public static long state(boolean firstPlayerToMove, int bombs1, int unflippables1, int bombs2, int unflippables2) {
+        return (firstPlayerToMove ? 0 : SECOND_PLAYER_TO_MOVE)
+                ^ BOMBS_LEFT[0][bombs1] ^ UNFLIPPABLES_LEFT[0][unflippables1]
+                ^ BOMBS_LEFT[1][bombs2] ^ UNFLIPPABLES_LEFT[1][unflippables2];
+    }
+
+    /**
+     * Computes the hash of the discs on a board, from scratch.
+     *
+     * @param first        The discs of the first player.
+     * @param second       The discs of the second player.
+     * @param bombs        All the bomb discs.
+     * @param unflippables All the unflippable discs.
+     * @return The XOR of the keys of all the discs.
+     */
+    public static long board(long first, long second, long bombs, long unflippables) {
+        long hash = 0;
+        for (long all = first | second; all != 0; all &= all - 1) {
+            int square = Long.numberOfTrailingZeros(all);
+            long bit = all & -all;
+            int owner = (first & bit) != 0 ? 0 : 1;
+            int kind = (bombs & bit) != 0 ? BitBoards.BOMB : (unflippables & bit) != 0 ? BitBoards.UNFLIPPABLE : BitBoards.SIMPLE;
+            hash ^= DISCS[square][owner][kind];
+        }
+        return hash;
+    }
+}
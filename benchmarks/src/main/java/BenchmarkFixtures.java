@@ -0,0 +1,233 @@
+import reversi.bench.Fixtures;
+
+import java.util.Random;
+
+/**
+ * The game side of the benchmarks, see {@link Fixtures}. It lives in the default package, next to the game classes.
+ *
+ * The midgame positions are reached by playing random moves from the start position set up by GameLogic.reset,
+ * special discs included, with a fixed seed, so every run measures the same positions.
+ */
+public class BenchmarkFixtures implements Fixtures {
+
+    private static final long seed = 20250101L;
+    private static final int[] plies = {16, 24, 32, 40}; // Moves played to reach each position
+    private static final int searchDepth = 6;           // Depth of the searching AI players
+    private static final long mctsTimeBudget = 50;      // Milliseconds per move, since MctsAI has no fixed depth
+
+    private static final GameRecord[] positions = playPositions();
+
+    private GameLogic game;
+    private int firstSquare; // The first valid move of the loaded position
+    private Disc disc;       // A simple disc of the player to move, for locate_disc
+    private AIPlayer player;
+
+    /**
+     * Constructs the fixtures, without a loaded position.
+     */
+    public BenchmarkFixtures() {
+        AIPlayer.registerAllAIPlayers();
+    }
+
+    /**
+     * Returns the number of fixed midgame positions.
+     *
+     * @return The number of positions.
+     */
+    @Override
+    public int positions() {
+        return positions.length;
+    }
+
+    /**
+     * Sets up a new game in one of the fixed midgame positions.
+     *
+     * @param position The index of the position.
+     */
+    @Override
+    public void load(int position) {
+        game = newGame();
+        positions[position].replay(game);
+        MoveList list = new MoveList();
+        game.generateMoves(list);
+        firstSquare = list.square(0);
+        disc = new SimpleDisc(currentPlayer());
+    }
+
+    /**
+     * Calls GameLogic.getFlips on every empty square.
+     *
+     * @return The total number of flips.
+     */
+    @Override
+    public int getFlips() {
+        int total = 0;
+        for (int square = 0; square < 64; square++) {
+            Position position = PositionSet.positionOf(square);
+            if (game.getDiscAtPosition(position) == null) total += game.getFlips(position).size();
+        }
+        return total;
+    }
+
+    /**
+     * Plays and takes back a silent move, then calls GameLogic.ValidMoves.
+     *
+     * @return The number of valid moves.
+     */
+    @Override
+    public int validMoves() {
+        game.makeMove(firstSquare, BitBoards.SIMPLE);
+        game.unmakeMove();
+        return game.ValidMoves().size();
+    }
+
+    /**
+     * Plays and takes back a silent move.
+     *
+     * @return true if the move was played.
+     */
+    @Override
+    public boolean makeUnmake() {
+        boolean played = game.makeMove(firstSquare, BitBoards.SIMPLE);
+        game.unmakeMove();
+        return played;
+    }
+
+    /**
+     * Plays a move with locate_disc and takes it back with undoLastMove.
+     *
+     * @return true if the move was played.
+     */
+    @Override
+    public boolean locateAndUndo() {
+        boolean played = game.locate_disc(PositionSet.positionOf(firstSquare), disc);
+        game.undoLastMove();
+        return played;
+    }
+
+    /**
+     * Copies the game with cloneGame.
+     *
+     * @return The copy.
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public Object cloneGame() {
+        return game.cloneGame(game.isFirstPlayerTurn());
+    }
+
+    /**
+     * Counts the discs of both players.
+     *
+     * @return The total number of discs.
+     */
+    @Override
+    public int countPlayerDiscs() {
+        return game.countPlayerDiscs(game.getFirstPlayer()) + game.countPlayerDiscs(game.getSecondPlayer());
+    }
+
+    /**
+     * Creates a new AI player for the player to move, closing the previous one.
+     *
+     * @param name The registered name of the AI player.
+     */
+    @Override
+    public void newPlayer(String name) {
+        closePlayer();
+        player = AIPlayer.createAIPlayer(name, game.isFirstPlayerTurn());
+        if (player instanceof AlphaBetaAI) {
+            AlphaBetaAI ai = (AlphaBetaAI) player;
+            ai.setOpeningBook(OpeningBook.EMPTY);
+            ai.setMaxDepth(searchDepth);
+            ai.setTimeBudget(Integer.MAX_VALUE); // Only the depth stops the search
+        } else if (player instanceof MctsAI) {
+            MctsAI ai = (MctsAI) player;
+            ai.setOpeningBook(OpeningBook.EMPTY);
+            ai.setTimeBudget(mctsTimeBudget);
+        }
+    }
+
+    /**
+     * Clears the transposition table of a searching AI player. MctsAI builds a new tree for every move, so it has
+     * nothing to clear.
+     */
+    @Override
+    public void resetPlayer() {
+        if (player instanceof AlphaBetaAI) ((AlphaBetaAI) player).getTable().clear();
+    }
+
+    /**
+     * Asks the AI player for a move in the loaded position.
+     *
+     * @return The move.
+     */
+    @Override
+    public Object aiMove() {
+        return player.makeMove(game);
+    }
+
+    /**
+     * Closes the AI player, if there is one.
+     */
+    @Override
+    public void closePlayer() {
+        if (player != null) {
+            player.close();
+            player = null;
+        }
+    }
+
+    /**
+     * Returns the player to move in the loaded game.
+     *
+     * @return The player.
+     */
+    private Player currentPlayer() {
+        return game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+    }
+
+    /**
+     * Creates a game in the start position, with human players and without game events.
+     *
+     * @return The game.
+     */
+    private static GameLogic newGame() {
+        GameLogic game = new GameLogic();
+        game.setGameEventListener(GameEventListener.NONE);
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        game.reset();
+        return game;
+    }
+
+    /**
+     * Plays random moves, with random disc kinds, until every position has been reached. A game that ends too soon
+     * is dropped and another one is played.
+     *
+     * @return The records of the moves leading to each position.
+     */
+    private static GameRecord[] playPositions() {
+        Random random = new Random(seed);
+        GameRecord[] positions = new GameRecord[plies.length];
+        MoveList moves = new MoveList();
+        for (int i = 0; i < plies.length; i++) {
+            GameLogic game;
+            do {
+                game = newGame();
+                for (int ply = 0; ply < plies[i] && !game.isGameFinished(); ply++) {
+                    int count = game.generateMoves(moves);
+                    int square = moves.square(random.nextInt(count));
+                    int kind = random.nextInt(4); // Half of the moves place simple discs
+                    if (kind == BitBoards.BOMB && game.isBomb0() || kind == BitBoards.UNFLIPPABLE && game.isUnflip0()
+                            || kind > BitBoards.UNFLIPPABLE) {
+                        kind = BitBoards.SIMPLE;
+                    }
+                    Move move = SearchBoard.toMove(SearchBoard.move(square, kind),
+                            game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer());
+                    game.locate_disc(move.position(), move.disc());
+                }
+            } while (game.isGameFinished());
+            positions[i] = GameRecord.of(game, "RandomAI", "RandomAI", GameRecord.noForfeit);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,78 @@
+package reversi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures AIPlayer.makeMove of every registered AI player on each of the fixed midgame positions of
+ * {@link Fixtures}. The player is created once per trial, so its transposition table and thread pool are not part of
+ * the measured time or allocation, and its table is cleared before every invocation, so no searched position carries
+ * over from one move to the next. The searching players search to a fixed depth without their opening book; MctsAI
+ * has a fixed time budget instead, so its score is that budget and its allocation rate is what to compare.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AIPlayerBenchmark {
+
+    @Param({"RandomAI", "GreedyAI", "SmartAI", "AlphaBetaAI", "ParallelAlphaBetaAI", "MctsAI"})
+    private String player;
+
+    @Param({"0", "1", "2", "3"})
+    private int position;
+
+    private Fixtures fixtures;
+
+    /**
+     * Loads the position and creates the player of the trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = Fixtures.create();
+        fixtures.load(position);
+        fixtures.newPlayer(player);
+    }
+
+    /**
+     * Clears the table of the player before every move. Moves take long enough for the cost of a setup per invocation
+     * not to matter.
+     */
+    @Setup(Level.Invocation)
+    public void resetPlayer() {
+        fixtures.resetPlayer();
+    }
+
+    /**
+     * Stops the threads of the player at the end of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixtures.closePlayer();
+    }
+
+    /**
+     * AIPlayer.makeMove.
+     *
+     * @return The move.
+     */
+    @Benchmark
+    public Object makeMove() {
+        return fixtures.aiMove();
+    }
+}
@@ -0,0 +1,117 @@
+package reversi.bench;
+
+/**
+ * The operations the benchmarks measure, on one of a fixed set of midgame positions.
+ *
+ * The game classes are in the default package, which code in a named package cannot refer to, while JMH only runs
+ * benchmarks from named packages. The benchmarks therefore reach the game through this interface: it is implemented
+ * by BenchmarkFixtures, in the default package, which is loaded by name once per benchmark setup (see
+ * {@link #create()}). The calls in the measured code are then plain interface calls to a single implementation, which
+ * the JIT inlines, so no reflection is measured.
+ *
+ * An instance holds one game and is not thread-safe.
+ */
+public interface Fixtures {
+
+    /**
+     * The name of the class that implements this interface.
+     */
+    String implementation = "BenchmarkFixtures";
+
+    /**
+     * Creates the fixtures, by loading the implementation from the default package.
+     *
+     * @return New fixtures, without a loaded position.
+     * @throws IllegalStateException if the implementation cannot be loaded.
+     */
+    static Fixtures create() {
+        try {
+            return (Fixtures) Class.forName(implementation).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load " + implementation, e);
+        }
+    }
+
+    /**
+     * Returns the number of fixed midgame positions.
+     *
+     * @return The number of positions.
+     */
+    int positions();
+
+    /**
+     * Sets up a new game in one of the fixed midgame positions. The other operations work on this game.
+     *
+     * @param position The index of the position, from 0 to {@link #positions()} - 1.
+     */
+    void load(int position);
+
+    /**
+     * Calls GameLogic.getFlips on every empty square.
+     *
+     * @return The total number of flips, so that the work is not optimised away.
+     */
+    int getFlips();
+
+    /**
+     * Plays and takes back a silent move, which clears the cached valid moves, then calls GameLogic.ValidMoves.
+     * Compare with {@link #makeUnmake()} to get the cost of ValidMoves alone.
+     *
+     * @return The number of valid moves.
+     */
+    int validMoves();
+
+    /**
+     * Plays and takes back a silent move with GameLogic.makeMove and GameLogic.unmakeMove.
+     *
+     * @return true if the move was played.
+     */
+    boolean makeUnmake();
+
+    /**
+     * Plays a move with GameLogic.locate_disc and takes it back with GameLogic.undoLastMove.
+     *
+     * @return true if the move was played.
+     */
+    boolean locateAndUndo();
+
+    /**
+     * Copies the game with GameLogic.cloneGame, move history included.
+     *
+     * @return The copy.
+     */
+    Object cloneGame();
+
+    /**
+     * Counts the discs of both players with GameLogic.countPlayerDiscs.
+     *
+     * @return The total number of discs.
+     */
+    int countPlayerDiscs();
+
+    /**
+     * Creates an AI player for the player to move, closing the previous one. Searching players search to a fixed
+     * depth and do not use their opening book.
+     *
+     * @param name The registered name of the AI player.
+     */
+    void newPlayer(String name);
+
+    /**
+     * Clears what the AI player keeps from its earlier moves, its transposition table, so that the next
+     * {@link #aiMove()} searches from scratch without allocating a new player.
+     */
+    void resetPlayer();
+
+    /**
+     * Asks the AI player created by {@link #newPlayer(String)} for a move in the loaded position.
+     *
+     * @return The move.
+     */
+    Object aiMove();
+
+    /**
+     * Closes the AI player, which stops its search threads.
+     */
+    void closePlayer();
+}
@@ -0,0 +1,103 @@
+package reversi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the basic operations of GameLogic on each of the fixed midgame positions of {@link Fixtures}.
+ * Every operation leaves the game as it found it, so all invocations measure the same position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GameLogicBenchmark {
+
+    @Param({"0", "1", "2", "3"})
+    private int position;
+
+    private Fixtures fixtures;
+
+    /**
+     * Loads the position of the trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = Fixtures.create();
+        fixtures.load(position);
+    }
+
+    /**
+     * GameLogic.getFlips on every empty square.
+     *
+     * @return The total number of flips.
+     */
+    @Benchmark
+    public int getFlips() {
+        return fixtures.getFlips();
+    }
+
+    /**
+     * GameLogic.ValidMoves after a silent move and its undo, which clear the cached moves.
+     *
+     * @return The number of valid moves.
+     */
+    @Benchmark
+    public int validMoves() {
+        return fixtures.validMoves();
+    }
+
+    /**
+     * A silent move and its undo, the baseline of {@link #validMoves()}.
+     *
+     * @return true if the move was played.
+     */
+    @Benchmark
+    public boolean makeUnmake() {
+        return fixtures.makeUnmake();
+    }
+
+    /**
+     * GameLogic.locate_disc followed by GameLogic.undoLastMove.
+     *
+     * @return true if the move was played.
+     */
+    @Benchmark
+    public boolean locateAndUndo() {
+        return fixtures.locateAndUndo();
+    }
+
+    /**
+     * GameLogic.cloneGame.
+     *
+     * @return The copy.
+     */
+    @Benchmark
+    public Object cloneGame() {
+        return fixtures.cloneGame();
+    }
+
+    /**
+     * GameLogic.countPlayerDiscs for both players.
+     *
+     * @return The total number of discs.
+     */
+    @Benchmark
+    public int countPlayerDiscs() {
+        return fixtures.countPlayerDiscs();
+    }
+}